@@ -0,0 +1,123 @@
+package com.hostel.allocation;
+
+import com.hostel.dto.BatchAllocationRequest.StudentPreference;
+import com.hostel.model.Bed;
+import com.hostel.model.Room;
+
+import java.util.*;
+
+/**
+ * Assigns students to free beds against an in-memory snapshot. Rooms are bucketed by
+ * (block, floor, roomType, hasAc) so a preference only looks at the heads of matching
+ * buckets. Within a bucket, partly filled rooms are filled before empty ones are opened,
+ * and the most constrained students are placed first so flexible students don't take
+ * the only beds that fit someone else.
+ */
+public class BedAllocationPlanner {
+    
+    public record Assignment(StudentPreference preference, Room room, Bed bed) {}
+    
+    public record Plan(List<Assignment> assignments, List<StudentPreference> unplaced) {}
+    
+    private static final Comparator<RoomSlot> FILL_ORDER = Comparator
+            .comparingInt((RoomSlot slot) -> -slot.occupancy)
+            .thenComparing(slot -> slot.room.getRoomNumber())
+            .thenComparing(slot -> slot.room.getId());
+    
+    private final Map<BucketKey, TreeSet<RoomSlot>> buckets = new HashMap<>();
+    
+    /**
+     * @param rooms    rooms that may receive students
+     * @param freeBeds available beds of those rooms, in the order they should be handed out
+     */
+    public BedAllocationPlanner(Collection<Room> rooms, Map<Long, List<Bed>> freeBeds) {
+        for (Room room : rooms) {
+            List<Bed> beds = freeBeds.getOrDefault(room.getId(), List.of());
+            int occupancy = room.getCurrentOccupancy() == null ? 0 : room.getCurrentOccupancy();
+            int capacity = room.getCapacity() == null ? 0 : room.getCapacity();
+            if (beds.isEmpty() || occupancy >= capacity) {
+                continue;
+            }
+            RoomSlot slot = new RoomSlot(room, new ArrayDeque<>(beds), occupancy, capacity);
+            buckets.computeIfAbsent(BucketKey.of(room), k -> new TreeSet<>(FILL_ORDER)).add(slot);
+        }
+    }
+    
+    public Plan plan(List<StudentPreference> preferences) {
+        List<StudentPreference> ordered = new ArrayList<>(preferences);
+        ordered.sort(Comparator.comparingInt(BedAllocationPlanner::constraints).reversed());
+        
+        List<Assignment> assignments = new ArrayList<>();
+        List<StudentPreference> unplaced = new ArrayList<>();
+        for (StudentPreference preference : ordered) {
+            Assignment assignment = place(preference);
+            if (assignment != null) {
+                assignments.add(assignment);
+            } else {
+                unplaced.add(preference);
+            }
+        }
+        return new Plan(assignments, unplaced);
+    }
+    
+    private Assignment place(StudentPreference preference) {
+        TreeSet<RoomSlot> bestBucket = null;
+        for (Map.Entry<BucketKey, TreeSet<RoomSlot>> entry : buckets.entrySet()) {
+            if (entry.getValue().isEmpty() || !entry.getKey().matches(preference)) {
+                continue;
+            }
+            if (bestBucket == null || FILL_ORDER.compare(entry.getValue().first(), bestBucket.first()) < 0) {
+                bestBucket = entry.getValue();
+            }
+        }
+        if (bestBucket == null) {
+            return null;
+        }
+        
+        // Re-insert after the occupancy change so the bucket stays ordered
+        RoomSlot slot = bestBucket.pollFirst();
+        Bed bed = slot.beds.poll();
+        slot.occupancy++;
+        if (!slot.beds.isEmpty() && slot.occupancy < slot.capacity) {
+            bestBucket.add(slot);
+        }
+        return new Assignment(preference, slot.room, bed);
+    }
+    
+    private static int constraints(StudentPreference preference) {
+        int count = 0;
+        if (preference.getBlock() != null) count++;
+        if (preference.getFloor() != null) count++;
+        if (preference.getRoomType() != null) count++;
+        if (preference.getHasAc() != null) count++;
+        return count;
+    }
+    
+    private static final class RoomSlot {
+        final Room room;
+        final Deque<Bed> beds;
+        final int capacity;
+        int occupancy;
+        
+        RoomSlot(Room room, Deque<Bed> beds, int occupancy, int capacity) {
+            this.room = room;
+            this.beds = beds;
+            this.occupancy = occupancy;
+            this.capacity = capacity;
+        }
+    }
+    
+    private record BucketKey(String block, Integer floor, String roomType, boolean hasAc) {
+        
+        static BucketKey of(Room room) {
+            return new BucketKey(room.getBlock(), room.getFloor(), room.getRoomType(), Boolean.TRUE.equals(room.getHasAc()));
+        }
+        
+        boolean matches(StudentPreference preference) {
+            return (preference.getBlock() == null || preference.getBlock().equalsIgnoreCase(block))
+                    && (preference.getFloor() == null || preference.getFloor().equals(floor))
+                    && (preference.getRoomType() == null || preference.getRoomType().equalsIgnoreCase(roomType))
+                    && (preference.getHasAc() == null || preference.getHasAc() == hasAc);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hostel.allocation;
+
+import com.hostel.model.Bed;
+import com.hostel.model.Room;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Decides whether rooms and beds can take a student by combining live bed state with
+ * open maintenance windows. Both sources are in memory, so filtering a room costs one
+ * lookup and one binary search.
+ */
+@Component
+@RequiredArgsConstructor
+public class BedAvailabilityResolver {
+    
+    private final OccupancyMap occupancyMap;
+    private final MaintenanceWindowIndex maintenanceWindowIndex;
+    
+    /**
+     * Rooms with free beds as in {@link OccupancyMap#findRooms}, leaving out rooms with
+     * open maintenance today.
+     */
+    public List<OccupancyMap.RoomVacancy> findAvailableRooms(String block, Integer floor, String roomType,
+                                                             Integer vacancies, Integer minVacancies) {
+        return occupancyMap.findRooms(block, floor, roomType, vacancies, minVacancies).stream()
+                .filter(room -> !maintenanceWindowIndex.isBlocked(room.roomId(), null, null))
+                .toList();
+    }
+    
+    /**
+     * Free beds of a room, or none while the room has open maintenance.
+     */
+    public List<Bed> filterAvailableBeds(long roomId, List<Bed> freeBeds) {
+        return maintenanceWindowIndex.isBlocked(roomId, null, null) ? List.of() : freeBeds;
+    }
+    
+    public boolean isAllocatable(long roomId, LocalDate from, LocalDate to) {
+        return !maintenanceWindowIndex.isBlocked(roomId, from, to);
+    }
+    
+    /**
+     * Rejects a stay in [from, to) that overlaps open maintenance in the room.
+     */
+    public void requireAllocatable(Room room, LocalDate from, LocalDate to) {
+        OptionalLong ticket = maintenanceWindowIndex.findBlockingTicket(room.getId(), from, to);
+        if (ticket.isPresent()) {
+            throw new IllegalStateException("Room " + room.getRoomNumber()
+                    + " is under maintenance (request " + ticket.getAsLong() + ")");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.hostel.allocation;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing map from primitive long keys to values, avoiding a boxed Long per entry.
+ * Not thread-safe; callers guard it with their own lock.
+ */
+class LongObjectHashMap<V> {
+    
+    private static final float MAX_LOAD = 0.6f;
+    
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    
+    LongObjectHashMap() {
+        keys = new long[16];
+        values = new Object[16];
+    }
+    
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+    
+    void put(long key, V value) {
+        if (size + 1 > keys.length * MAX_LOAD) {
+            resize(keys.length * 2);
+        }
+        int slot = slotOf(key, keys.length);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+    
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V removed = (V) values[slot];
+        values[slot] = null;
+        size--;
+        
+        // Backward-shift the rest of the probe run so lookups never stop at the hole
+        int hole = slot;
+        int next = (hole + 1) & (keys.length - 1);
+        while (values[next] != null) {
+            int home = slotOf(keys[next], keys.length);
+            if (((next - home) & (keys.length - 1)) >= ((next - hole) & (keys.length - 1))) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                values[next] = null;
+                hole = next;
+            }
+            next = (next + 1) & (keys.length - 1);
+        }
+        return removed;
+    }
+    
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+    
+    private int find(long key) {
+        int slot = slotOf(key, keys.length);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return -1;
+    }
+    
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slotOf(oldKeys[i], capacity);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    private static int slotOf(long key, int capacity) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (capacity - 1);
+    }
+}
@@ -0,0 +1,225 @@
+package com.hostel.allocation;
+
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.model.RoomMaintenance;
+import com.hostel.repository.RoomMaintenanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Open maintenance windows per room. A ticket that is not completed or cancelled holds
+ * its room from the day it was reported until its expected completion date, or
+ * indefinitely when there is none or the date has passed. Each room keeps its windows
+ * sorted by start with running maximum and minimum end dates, so an overlap check is a
+ * single binary search.
+ */
+@Component
+@RequiredArgsConstructor
+public class MaintenanceWindowIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceWindowIndex.class);
+    
+    private static final Set<String> OPEN_STATUSES = Set.of("REPORTED", "ASSIGNED", "IN_PROGRESS");
+    private static final long OPEN_END = Long.MAX_VALUE;
+    
+    private final RoomMaintenanceRepository roomMaintenanceRepository;
+    
+    private final LongObjectHashMap<RoomWindows> rooms = new LongObjectHashMap<>();
+    private final LongObjectHashMap<RoomWindows> roomByTicket = new LongObjectHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<RoomMaintenance> tickets = roomMaintenanceRepository.findByStatusIn(OPEN_STATUSES);
+    
+        lock.writeLock().lock();
+        try {
+            rooms.clear();
+            roomByTicket.clear();
+            Set<RoomWindows> touched = new HashSet<>();
+            for (RoomMaintenance ticket : tickets) {
+                touched.add(addWindow(ticket));
+            }
+            touched.forEach(RoomWindows::reindex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Maintenance window index built: {} open tickets in {} rooms", tickets.size(), rooms.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.entity() instanceof RoomMaintenance ticket)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            RoomWindows previous = roomByTicket.remove(ticket.getId());
+            if (previous != null) {
+                previous.remove(ticket.getId());
+                if (previous.size == 0) {
+                    rooms.remove(previous.roomId);
+                } else {
+                    previous.reindex();
+                }
+            }
+            if (!event.isDeleted() && OPEN_STATUSES.contains(ticket.getStatus())) {
+                addWindow(ticket).reindex();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * The id of an open ticket whose window overlaps [from, to) in the given room, if any.
+     * A null {@code to} means open-ended. Only today and later are considered.
+     */
+    public OptionalLong findBlockingTicket(long roomId, LocalDate from, LocalDate to) {
+        long today = LocalDate.now().toEpochDay();
+        long start = Math.max(from == null ? today : from.toEpochDay(), today);
+        long end = to == null ? OPEN_END : to.toEpochDay();
+        if (end <= start) {
+            return OptionalLong.empty();
+        }
+        lock.readLock().lock();
+        try {
+            RoomWindows windows = rooms.get(roomId);
+            return windows == null ? OptionalLong.empty() : windows.findOverlap(start, end, today);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean isBlocked(long roomId, LocalDate from, LocalDate to) {
+        return findBlockingTicket(roomId, from, to).isPresent();
+    }
+    
+    private RoomWindows addWindow(RoomMaintenance ticket) {
+        RoomWindows windows = rooms.get(ticket.getRoomId());
+        if (windows == null) {
+            windows = new RoomWindows(ticket.getRoomId());
+            rooms.put(ticket.getRoomId(), windows);
+        }
+        long start = ticket.getCreatedAt() == null ? LocalDate.now().toEpochDay() : ticket.getCreatedAt().toLocalDate().toEpochDay();
+        long end = ticket.getExpectedCompletionDate() == null ? OPEN_END : ticket.getExpectedCompletionDate().toEpochDay();
+        windows.add(ticket.getId(), start, end);
+        roomByTicket.put(ticket.getId(), windows);
+        return windows;
+    }
+    
+    private static final class RoomWindows {
+        final long roomId;
+    
+        // Parallel arrays sorted by start after reindex()
+        long[] ticketIds = new long[2];
+        long[] starts = new long[2];
+        long[] ends = new long[2];
+        int size;
+    
+        // Running extremes over the first i+1 windows, with the ticket that holds them
+        int[] maxEndAt = new int[0];
+        int[] minEndAt = new int[0];
+    
+        RoomWindows(long roomId) {
+            this.roomId = roomId;
+        }
+    
+        void add(long ticketId, long start, long end) {
+            if (size == ticketIds.length) {
+                ticketIds = Arrays.copyOf(ticketIds, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            ticketIds[size] = ticketId;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+    
+        void remove(long ticketId) {
+            for (int i = 0; i < size; i++) {
+                if (ticketIds[i] == ticketId) {
+                    int tail = size - i - 1;
+                    System.arraycopy(ticketIds, i + 1, ticketIds, i, tail);
+                    System.arraycopy(starts, i + 1, starts, i, tail);
+                    System.arraycopy(ends, i + 1, ends, i, tail);
+                    size--;
+                    return;
+                }
+            }
+        }
+    
+        void reindex() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> starts[i]));
+            long[] sortedIds = new long[Math.max(size, 2)];
+            long[] sortedStarts = new long[sortedIds.length];
+            long[] sortedEnds = new long[sortedIds.length];
+            for (int i = 0; i < size; i++) {
+                sortedIds[i] = ticketIds[order[i]];
+                sortedStarts[i] = starts[order[i]];
+                sortedEnds[i] = ends[order[i]];
+            }
+            ticketIds = sortedIds;
+            starts = sortedStarts;
+            ends = sortedEnds;
+    
+            maxEndAt = new int[size];
+            minEndAt = new int[size];
+            for (int i = 0; i < size; i++) {
+                maxEndAt[i] = i > 0 && ends[maxEndAt[i - 1]] >= ends[i] ? maxEndAt[i - 1] : i;
+                minEndAt[i] = i > 0 && ends[minEndAt[i - 1]] <= ends[i] ? minEndAt[i - 1] : i;
+            }
+        }
+    
+        /**
+         * Among windows starting before {@code end}, one still running after {@code start}
+         * blocks, and so does one whose expected completion has passed without the ticket
+         * being closed.
+         */
+        OptionalLong findOverlap(long start, long end, long today) {
+            int last = lastStartBefore(end);
+            if (last < 0) {
+                return OptionalLong.empty();
+            }
+            if (ends[maxEndAt[last]] > start) {
+                return OptionalLong.of(ticketIds[maxEndAt[last]]);
+            }
+            if (ends[minEndAt[last]] <= today) {
+                return OptionalLong.of(ticketIds[minEndAt[last]]);
+            }
+            return OptionalLong.empty();
+        }
+    
+        private int lastStartBefore(long end) {
+            int lo = 0;
+            int hi = size - 1;
+            int found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < end) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.hostel.allocation;
+
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.model.Bed;
+import com.hostel.model.Room;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Live view of bed states: roomId to a bitset over the room's beds, plus a bedId to room
+ * index. Loaded at startup and updated from committed room and bed changes, so occupancy
+ * questions are answered without touching the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class OccupancyMap {
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyMap.class);
+    
+    private static final Set<String> CLOSED_ROOM_STATUSES = Set.of("MAINTENANCE", "UNAVAILABLE");
+    
+    public record RoomVacancy(long roomId, String roomNumber, String block, Integer floor, String roomType,
+                              int capacity, int occupiedBeds, int freeBeds, List<String> freeBedNumbers) {}
+    
+    public record BedState(long bedId, String bedNumber, long roomId, String roomNumber, String status) {}
+    
+    private final RoomRepository roomRepository;
+    private final BedRepository bedRepository;
+    
+    private final LongObjectHashMap<RoomOccupancy> rooms = new LongObjectHashMap<>();
+    private final LongObjectHashMap<RoomOccupancy> roomByBed = new LongObjectHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Room> allRooms = roomRepository.findAll();
+        List<Bed> allBeds = bedRepository.findAll();
+        
+        lock.writeLock().lock();
+        try {
+            rooms.clear();
+            roomByBed.clear();
+            allRooms.forEach(this::putRoom);
+            allBeds.forEach(this::putBed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Occupancy map built: {} rooms, {} beds", allRooms.size(), allBeds.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Object entity = event.entity();
+        if (!(entity instanceof Room) && !(entity instanceof Bed)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (entity instanceof Room room) {
+                if (event.isDeleted()) {
+                    removeRoom(room.getId());
+                } else {
+                    putRoom(room);
+                }
+            } else if (entity instanceof Bed bed) {
+                if (event.isDeleted()) {
+                    removeBed(bed.getId());
+                } else {
+                    putBed(bed);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Rooms matching the given attributes, optionally restricted to an exact or minimum
+     * number of free beds. Null arguments match everything.
+     */
+    public List<RoomVacancy> findRooms(String block, Integer floor, String roomType,
+                                       Integer vacancies, Integer minVacancies) {
+        List<RoomVacancy> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            rooms.forEachValue(room -> {
+                if ((block != null && !block.equalsIgnoreCase(room.block))
+                        || (floor != null && !floor.equals(room.floor))
+                        || (roomType != null && !roomType.equalsIgnoreCase(room.roomType))) {
+                    return;
+                }
+                int free = room.freeBeds();
+                if ((vacancies != null && free != vacancies) || (minVacancies != null && free < minVacancies)) {
+                    return;
+                }
+                result.add(room.toVacancy());
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparing(RoomVacancy::roomNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+    
+    public Optional<BedState> findBed(long bedId) {
+        lock.readLock().lock();
+        try {
+            RoomOccupancy room = roomByBed.get(bedId);
+            return room == null ? Optional.empty() : Optional.of(room.bedState(bedId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Object> summary() {
+        int[] totals = new int[3];
+        lock.readLock().lock();
+        try {
+            rooms.forEachValue(room -> {
+                totals[0] += room.bedCount;
+                totals[1] += room.occupied.cardinality();
+                totals[2] += room.freeBeds();
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalBeds", totals[0]);
+        summary.put("occupiedBeds", totals[1]);
+        summary.put("freeBeds", totals[2]);
+        return summary;
+    }
+    
+    private void putRoom(Room room) {
+        RoomOccupancy entry = rooms.get(room.getId());
+        if (entry == null) {
+            entry = new RoomOccupancy(room.getId());
+            rooms.put(room.getId(), entry);
+        }
+        entry.roomNumber = room.getRoomNumber();
+        entry.block = room.getBlock();
+        entry.floor = room.getFloor();
+        entry.roomType = room.getRoomType();
+        entry.capacity = room.getCapacity() == null ? 0 : room.getCapacity();
+        entry.closed = CLOSED_ROOM_STATUSES.contains(room.getStatus());
+    }
+    
+    private void removeRoom(long roomId) {
+        RoomOccupancy entry = rooms.remove(roomId);
+        if (entry != null) {
+            for (int i = 0; i < entry.bedCount; i++) {
+                roomByBed.remove(entry.bedIds[i]);
+            }
+        }
+    }
+    
+    private void putBed(Bed bed) {
+        RoomOccupancy current = roomByBed.get(bed.getId());
+        if (current != null && current.roomId != bed.getRoomId()) {
+            current.removeBed(bed.getId());
+            current = null;
+        }
+        if (current == null) {
+            current = rooms.get(bed.getRoomId());
+            if (current == null) {
+                // Bed committed before its room was seen; the room event fills in the rest
+                current = new RoomOccupancy(bed.getRoomId());
+                rooms.put(bed.getRoomId(), current);
+            }
+            roomByBed.put(bed.getId(), current);
+        }
+        current.putBed(bed);
+    }
+    
+    private void removeBed(long bedId) {
+        RoomOccupancy room = roomByBed.remove(bedId);
+        if (room != null) {
+            room.removeBed(bedId);
+        }
+    }
+    
+    private static final class RoomOccupancy {
+        final long roomId;
+        String roomNumber;
+        String block;
+        Integer floor;
+        String roomType;
+        int capacity;
+        boolean closed;
+        
+        // Parallel arrays over the room's beds; bit i of each set describes bed i
+        long[] bedIds = new long[4];
+        String[] bedNumbers = new String[4];
+        int bedCount;
+        final BitSet occupied = new BitSet();
+        final BitSet outOfService = new BitSet();
+        
+        RoomOccupancy(long roomId) {
+            this.roomId = roomId;
+        }
+        
+        int freeBeds() {
+            if (closed) {
+                return 0;
+            }
+            BitSet taken = (BitSet) occupied.clone();
+            taken.or(outOfService);
+            return bedCount - taken.cardinality();
+        }
+        
+        void putBed(Bed bed) {
+            int i = indexOf(bed.getId());
+            if (i < 0) {
+                if (bedCount == bedIds.length) {
+                    bedIds = Arrays.copyOf(bedIds, bedCount * 2);
+                    bedNumbers = Arrays.copyOf(bedNumbers, bedCount * 2);
+                }
+                i = bedCount++;
+                bedIds[i] = bed.getId();
+            }
+            bedNumbers[i] = bed.getBedNumber();
+            occupied.set(i, "OCCUPIED".equals(bed.getStatus()) || Boolean.TRUE.equals(bed.getIsOccupied()));
+            outOfService.set(i, "MAINTENANCE".equals(bed.getStatus()));
+        }
+        
+        void removeBed(long bedId) {
+            int i = indexOf(bedId);
+            if (i < 0) {
+                return;
+            }
+            // Move the last bed into the hole so the arrays stay dense
+            int last = --bedCount;
+            bedIds[i] = bedIds[last];
+            bedNumbers[i] = bedNumbers[last];
+            occupied.set(i, occupied.get(last));
+            outOfService.set(i, outOfService.get(last));
+            bedNumbers[last] = null;
+            occupied.clear(last);
+            outOfService.clear(last);
+        }
+        
+        BedState bedState(long bedId) {
+            int i = indexOf(bedId);
+            String status = occupied.get(i) ? "OCCUPIED" : outOfService.get(i) ? "MAINTENANCE" : "AVAILABLE";
+            return new BedState(bedId, bedNumbers[i], roomId, roomNumber, status);
+        }
+        
+        RoomVacancy toVacancy() {
+            List<String> free = new ArrayList<>();
+            if (!closed) {
+                for (int i = 0; i < bedCount; i++) {
+                    if (!occupied.get(i) && !outOfService.get(i)) {
+                        free.add(bedNumbers[i]);
+                    }
+                }
+                free.sort(Comparator.nullsLast(Comparator.naturalOrder()));
+            }
+            return new RoomVacancy(roomId, roomNumber, block, floor, roomType, capacity,
+                    occupied.cardinality(), free.size(), free);
+        }
+        
+        private int indexOf(long bedId) {
+            for (int i = 0; i < bedCount; i++) {
+                if (bedIds[i] == bedId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
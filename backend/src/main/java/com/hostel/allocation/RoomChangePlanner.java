@@ -0,0 +1,119 @@
+package com.hostel.allocation;
+
+import java.util.*;
+
+/**
+ * Orders approved room changes so they can all be applied together. A move runs as soon
+ * as its target room has a free bed, and every move frees a bed that may unblock others.
+ * Moves left waiting on full rooms are searched for cycles (A to B's room while B goes to
+ * A's room, or longer rings); each student in a cycle takes the bed vacated by the next,
+ * so the rooms never need a spare bed.
+ */
+public class RoomChangePlanner {
+    
+    public record MoveRequest(long requestId, long fromRoomId, long fromBedId, long toRoomId) {}
+    
+    public record Move(MoveRequest request, long targetBedId, boolean inCycle) {}
+    
+    public record Plan(List<Move> moves, List<MoveRequest> blocked, int cycles) {}
+    
+    private final Map<Long, Deque<Long>> freeBeds = new HashMap<>();
+    
+    /**
+     * @param freeBeds per room, the beds that may be taken; callers cap this at the room's
+     *                 remaining capacity
+     */
+    public RoomChangePlanner(Map<Long, ? extends Collection<Long>> freeBeds) {
+        freeBeds.forEach((roomId, beds) -> this.freeBeds.put(roomId, new ArrayDeque<>(beds)));
+    }
+    
+    public Plan plan(List<MoveRequest> requests) {
+        List<Move> moves = new ArrayList<>();
+        Set<MoveRequest> pending = new LinkedHashSet<>(requests);
+        Map<Long, Deque<MoveRequest>> waitingOn = new HashMap<>();
+        
+        Deque<MoveRequest> ready = new ArrayDeque<>(requests);
+        int cycles = 0;
+        while (true) {
+            while (!ready.isEmpty()) {
+                MoveRequest request = ready.poll();
+                if (!pending.contains(request)) {
+                    continue;
+                }
+                Deque<Long> beds = freeBeds.get(request.toRoomId());
+                if (beds != null && !beds.isEmpty()) {
+                    moves.add(new Move(request, beds.poll(), false));
+                    pending.remove(request);
+                    freeBeds.computeIfAbsent(request.fromRoomId(), id -> new ArrayDeque<>()).add(request.fromBedId());
+                    Deque<MoveRequest> unblocked = waitingOn.remove(request.fromRoomId());
+                    if (unblocked != null) {
+                        ready.addAll(unblocked);
+                    }
+                } else {
+                    waitingOn.computeIfAbsent(request.toRoomId(), id -> new ArrayDeque<>()).add(request);
+                }
+            }
+            
+            // Nothing more fits directly; a cycle keeps every room's occupancy unchanged.
+            // The moves are listed in path order, so each one's target room is the next
+            // one's source room.
+            List<MoveRequest> cycle = findCycle(pending);
+            if (cycle == null) {
+                break;
+            }
+            for (int i = 0; i < cycle.size(); i++) {
+                MoveRequest next = cycle.get((i + 1) % cycle.size());
+                moves.add(new Move(cycle.get(i), next.fromBedId(), true));
+                pending.remove(cycle.get(i));
+            }
+            cycles++;
+        }
+        return new Plan(moves, new ArrayList<>(pending), cycles);
+    }
+    
+    private static List<MoveRequest> findCycle(Set<MoveRequest> pending) {
+        Map<Long, List<MoveRequest>> leaving = new LinkedHashMap<>();
+        for (MoveRequest request : pending) {
+            leaving.computeIfAbsent(request.fromRoomId(), id -> new ArrayList<>()).add(request);
+        }
+        
+        // Iterative DFS over rooms, with each pending move as an edge; a move back into a
+        // room on the current path closes a cycle
+        Set<Long> finished = new HashSet<>();
+        for (Long root : leaving.keySet()) {
+            if (finished.contains(root)) {
+                continue;
+            }
+            List<Long> pathRooms = new ArrayList<>(List.of(root));
+            List<MoveRequest> pathMoves = new ArrayList<>();
+            Deque<Iterator<MoveRequest>> edges = new ArrayDeque<>();
+            edges.push(leaving.get(root).iterator());
+            
+            while (!edges.isEmpty()) {
+                Iterator<MoveRequest> next = edges.peek();
+                if (!next.hasNext()) {
+                    edges.pop();
+                    finished.add(pathRooms.remove(pathRooms.size() - 1));
+                    if (!pathMoves.isEmpty()) {
+                        pathMoves.remove(pathMoves.size() - 1);
+                    }
+                    continue;
+                }
+                MoveRequest move = next.next();
+                long target = move.toRoomId();
+                int onPath = pathRooms.indexOf(target);
+                if (onPath >= 0) {
+                    List<MoveRequest> cycle = new ArrayList<>(pathMoves.subList(onPath, pathMoves.size()));
+                    cycle.add(move);
+                    return cycle;
+                }
+                if (!finished.contains(target) && leaving.containsKey(target)) {
+                    pathRooms.add(target);
+                    pathMoves.add(move);
+                    edges.push(leaving.get(target).iterator());
+                }
+            }
+        }
+        return null;
+    }
+}
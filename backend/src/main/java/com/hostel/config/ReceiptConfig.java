@@ -0,0 +1,31 @@
+package com.hostel.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ReceiptConfig {
+    
+    @Value("${receipts.executor.threads:2}")
+    private int threads;
+    
+    @Value("${receipts.executor.queue-capacity:50}")
+    private int queueCapacity;
+    
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService receiptExecutor() {
+        // Bounded pool and queue; when saturated the request is turned away rather than
+        // rendered on the request thread
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("receipt-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,28 @@
+package com.hostel.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    
+    @Value("${propagation.executor.threads:1}")
+    private int propagationThreads;
+    
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService propagationExecutor() {
+        // Drains are coalesced by the caller, so the queue never holds more than a few tasks
+        return new ThreadPoolExecutor(propagationThreads, propagationThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("propagation-"));
+    }
+}
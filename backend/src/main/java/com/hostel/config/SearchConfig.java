@@ -0,0 +1,30 @@
+package com.hostel.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class SearchConfig {
+    
+    @Value("${search.executor.threads:8}")
+    private int threads;
+    
+    @Value("${search.executor.queue-capacity:100}")
+    private int queueCapacity;
+    
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService searchExecutor() {
+        // Bounded pool and queue; when saturated new legs are rejected and reported as timed out
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("search-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -1,7 +1,11 @@
 package com.hostel.controller;
 
+import com.hostel.dto.RollCallRequest;
+import com.hostel.dto.RollCallResult;
 import com.hostel.model.Attendance;
+import com.hostel.service.AttendanceCounterService;
 import com.hostel.service.AttendanceService;
+import com.hostel.service.RollCallService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -13,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +29,8 @@ import java.util.Map;
 public class AttendanceController {
     
     private final AttendanceService attendanceService;
+    private final AttendanceCounterService attendanceCounterService;
+    private final RollCallService rollCallService;
     
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
@@ -33,6 +40,14 @@ public class AttendanceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(markedAttendance);
     }
     
+    @PostMapping("/roll-call")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Record a roll call for one date",
+            description = "Creates or updates one attendance row per student and reports the result of each entry; re-sending is safe")
+    public ResponseEntity<RollCallResult> recordRollCall(@Valid @RequestBody RollCallRequest request) {
+        return ResponseEntity.ok(rollCallService.record(request));
+    }
+    
     @PostMapping("/check-in")
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
     @Operation(summary = "Check in student")
@@ -44,8 +59,13 @@ public class AttendanceController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all attendance records")
-    public ResponseEntity<List<Attendance>> getAllAttendance() {
+    @Operation(summary = "Get all attendance records", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllAttendance(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(attendanceService.getAttendancePage(after, limit));
+        }
         List<Attendance> attendanceList = attendanceService.getAllAttendance();
         return ResponseEntity.ok(attendanceList);
     }
@@ -73,12 +93,43 @@ public class AttendanceController {
     }
     
     @GetMapping("/student/{studentId}/percentage")
-    @Operation(summary = "Get attendance percentage")
-    public ResponseEntity<Map<String, Long>> getAttendancePercentage(@PathVariable Long studentId) {
-        Long percentage = attendanceService.getAttendancePercentage(studentId);
+    @Operation(summary = "Get attendance percentage",
+            description = "Pass from and to for a term window; it covers the whole calendar months they fall in")
+    public ResponseEntity<Map<String, Long>> getAttendancePercentage(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long percentage = attendanceService.getAttendancePercentage(studentId, from, to);
         return ResponseEntity.ok(Map.of("percentage", percentage));
     }
     
+    @GetMapping("/student/{studentId}/summary")
+    @Operation(summary = "Get present, absent, late and on-leave day counts",
+            description = "Pass from and to for a term window; it covers the whole calendar months they fall in")
+    public ResponseEntity<Map<String, Object>> getAttendanceSummary(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AttendanceCounterService.Counts counts = attendanceService.getAttendanceCounts(studentId, from, to);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("studentId", studentId);
+        response.put("from", from);
+        response.put("to", to);
+        response.put("presentDays", counts.present());
+        response.put("absentDays", counts.absent());
+        response.put("lateDays", counts.late());
+        response.put("onLeaveDays", counts.onLeave());
+        response.put("percentage", counts.percentage());
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/counters/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild attendance counters from the attendance records now")
+    public ResponseEntity<Map<String, Integer>> rebuildCounters() {
+        return ResponseEntity.ok(Map.of("corrected", attendanceCounterService.rebuild()));
+    }
+    
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete attendance")
@@ -34,8 +34,13 @@ public class CommunicationController {
     }
     
     @GetMapping("/messages")
-    @Operation(summary = "Get all messages")
-    public ResponseEntity<List<Message>> getAllMessages() {
+    @Operation(summary = "Get all messages", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllMessages(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(communicationService.getMessagesPage(after, limit));
+        }
         List<Message> messages = communicationService.getAllMessages();
         return ResponseEntity.ok(messages);
     }
@@ -93,8 +98,13 @@ public class CommunicationController {
     }
     
     @GetMapping("/announcements")
-    @Operation(summary = "Get all announcements")
-    public ResponseEntity<List<Announcement>> getAllAnnouncements() {
+    @Operation(summary = "Get all announcements", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllAnnouncements(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(communicationService.getAnnouncementsPage(after, limit));
+        }
         List<Announcement> announcements = communicationService.getAllAnnouncements();
         return ResponseEntity.ok(announcements);
     }
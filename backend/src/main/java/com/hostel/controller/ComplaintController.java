@@ -31,8 +31,13 @@ public class ComplaintController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all complaints")
-    public ResponseEntity<List<Complaint>> getAllComplaints() {
+    @Operation(summary = "Get all complaints", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllComplaints(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(complaintService.getComplaintsPage(after, limit));
+        }
         List<Complaint> complaints = complaintService.getAllComplaints();
         return ResponseEntity.ok(complaints);
     }
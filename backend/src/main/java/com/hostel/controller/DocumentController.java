@@ -31,8 +31,13 @@ public class DocumentController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all documents")
-    public ResponseEntity<List<Document>> getAllDocuments() {
+    @Operation(summary = "Get all documents", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllDocuments(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(documentService.getDocumentsPage(after, limit));
+        }
         List<Document> documents = documentService.getAllDocuments();
         return ResponseEntity.ok(documents);
     }
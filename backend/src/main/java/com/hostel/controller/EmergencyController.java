@@ -44,8 +44,13 @@ public class EmergencyController {
     }
     
     @GetMapping("/alerts")
-    @Operation(summary = "Get all emergency alerts")
-    public ResponseEntity<List<EmergencyAlert>> getAllAlerts() {
+    @Operation(summary = "Get all emergency alerts", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllAlerts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(emergencyService.getAlertsPage(after, limit));
+        }
         List<EmergencyAlert> alerts = emergencyService.getAllAlerts();
         return ResponseEntity.ok(alerts);
     }
@@ -119,8 +124,13 @@ public class EmergencyController {
     }
     
     @GetMapping("/contacts")
-    @Operation(summary = "Get all emergency contacts")
-    public ResponseEntity<List<EmergencyContact>> getAllEmergencyContacts() {
+    @Operation(summary = "Get all emergency contacts", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllEmergencyContacts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(emergencyService.getEmergencyContactsPage(after, limit));
+        }
         List<EmergencyContact> contacts = emergencyService.getAllEmergencyContacts();
         return ResponseEntity.ok(contacts);
     }
@@ -1,19 +1,42 @@
 package com.hostel.controller;
 
+import com.hostel.dto.FeeGenerationRequest;
+import com.hostel.dto.FeeGenerationResult;
+import com.hostel.dto.PaymentIngestionRequest;
+import com.hostel.dto.PaymentIngestionResult;
+import com.hostel.model.FeeLedger;
 import com.hostel.model.FeePayment;
+import com.hostel.model.LateFeeRun;
 import com.hostel.model.FeeType;
+import com.hostel.service.FeeGenerationService;
+import com.hostel.service.FeeLedgerService;
+import com.hostel.service.FeeRollupService;
 import com.hostel.service.FeeService;
+import com.hostel.service.LateFeeService;
+import com.hostel.service.PaymentIngestionService;
+import com.hostel.service.ReceiptService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/fees")
@@ -23,6 +46,12 @@ import java.util.Map;
 public class FeeController {
     
     private final FeeService feeService;
+    private final FeeLedgerService feeLedgerService;
+    private final FeeRollupService feeRollupService;
+    private final LateFeeService lateFeeService;
+    private final FeeGenerationService feeGenerationService;
+    private final PaymentIngestionService paymentIngestionService;
+    private final ReceiptService receiptService;
     
     // ============ FEE TYPE ENDPOINTS ============
     
@@ -35,8 +64,13 @@ public class FeeController {
     }
     
     @GetMapping("/types")
-    @Operation(summary = "Get all fee types")
-    public ResponseEntity<List<FeeType>> getAllFeeTypes() {
+    @Operation(summary = "Get all fee types", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllFeeTypes(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(feeService.getFeeTypesPage(after, limit));
+        }
         List<FeeType> feeTypes = feeService.getAllFeeTypes();
         return ResponseEntity.ok(feeTypes);
     }
@@ -81,9 +115,22 @@ public class FeeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdPayment);
     }
     
+    @PostMapping("/payments/generate")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Generate a term's fee payments for all active students",
+            description = "Safe to re-run: payments that already exist for the term are skipped")
+    public ResponseEntity<FeeGenerationResult> generateTermFees(@Valid @RequestBody FeeGenerationRequest request) {
+        return ResponseEntity.ok(feeGenerationService.generateTermFees(request));
+    }
+    
     @GetMapping("/payments")
-    @Operation(summary = "Get all fee payments")
-    public ResponseEntity<List<FeePayment>> getAllFeePayments() {
+    @Operation(summary = "Get all fee payments", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllFeePayments(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(feeService.getFeePaymentsPage(after, limit));
+        }
         List<FeePayment> payments = feeService.getAllFeePayments();
         return ResponseEntity.ok(payments);
     }
@@ -95,6 +142,33 @@ public class FeeController {
         return ResponseEntity.ok(payment);
     }
     
+    @GetMapping("/payments/{id}/receipt")
+    @Operation(summary = "Download the PDF receipt of a paid fee payment",
+            description = "Rendered once in the background and then served from disk; send If-None-Match to revalidate")
+    public CompletableFuture<ResponseEntity<Resource>> getReceipt(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) {
+        // Set before going async; otherwise the security headers written when this dispatch
+        // ends would mark the download no-store
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return receiptService.findRendered(id)
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> receiptService.render(id))
+                .thenApply(receipt -> {
+                    String etag = "\"" + receipt.etag() + "\"";
+                    if (etag.equals(ifNoneMatch)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(etag)
+                            .contentType(MediaType.APPLICATION_PDF)
+                            .header(HttpHeaders.CONTENT_DISPOSITION,
+                                    ContentDisposition.inline().filename(receipt.fileName()).build().toString())
+                            .body(new FileSystemResource(receipt.file()));
+                });
+    }
+    
     @GetMapping("/payments/student/{studentId}")
     @Operation(summary = "Get fee payments by student ID")
     public ResponseEntity<List<FeePayment>> getFeePaymentsByStudentId(@PathVariable Long studentId) {
@@ -130,6 +204,64 @@ public class FeeController {
         return ResponseEntity.ok(Map.of("totalPending", total));
     }
     
+    @GetMapping("/payments/student/{studentId}/balance")
+    @Operation(summary = "Get fee balance of a student: paid, pending, overdue and late fees")
+    public ResponseEntity<FeeLedger> getFeeBalance(@PathVariable Long studentId) {
+        return ResponseEntity.ok(feeService.getFeeBalance(studentId));
+    }
+    
+    @PostMapping("/ledger/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recompute fee ledgers from payments and repair any drift")
+    public ResponseEntity<Map<String, Integer>> reconcileLedger() {
+        return ResponseEntity.ok(Map.of("corrected", feeLedgerService.reconcile()));
+    }
+    
+    @PostMapping("/late-fees/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recalculate overdue status and late fees of all unpaid fees now")
+    public ResponseEntity<LateFeeRun> runLateFees(Authentication authentication) {
+        return ResponseEntity.ok(lateFeeService.recalculate(LocalDate.now(), authentication.getName()));
+    }
+    
+    @GetMapping("/late-fees/runs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Get reports of recent late fee runs")
+    public ResponseEntity<List<LateFeeRun>> getLateFeeRuns(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(lateFeeService.getRecentRuns(limit));
+    }
+    
+    @GetMapping("/analytics")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Get collected and outstanding fee amounts for a date range",
+            description = "Collected amounts fall on the payment date and outstanding amounts on the due date. " +
+                    "groupBy is one of feeType, paymentMethod, semester or academicYear")
+    public ResponseEntity<Map<String, Object>> getFeeAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String semester,
+            @RequestParam(required = false) String academicYear,
+            @RequestParam(required = false) Long feeTypeId,
+            @RequestParam(required = false) String paymentMethod,
+            @RequestParam(required = false) String groupBy) {
+        return ResponseEntity.ok(feeRollupService.getAnalytics(from, to, semester, academicYear, feeTypeId, paymentMethod, groupBy));
+    }
+    
+    @PostMapping("/analytics/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild the fee analytics rollups from the payments now")
+    public ResponseEntity<Map<String, Integer>> reconcileRollups() {
+        return ResponseEntity.ok(Map.of("corrected", feeRollupService.reconcile()));
+    }
+    
+    @PostMapping("/payments/ingest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Apply a bank or UPI settlement batch to unpaid fees",
+            description = "Rows whose transaction ID is already recorded are reported as duplicates, so re-sending a batch is safe")
+    public ResponseEntity<PaymentIngestionResult> ingestPayments(@Valid @RequestBody PaymentIngestionRequest request) {
+        return ResponseEntity.ok(paymentIngestionService.ingest(request));
+    }
+    
     @PatchMapping("/payments/{id}/pay")
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
     @Operation(summary = "Mark fee payment as paid")
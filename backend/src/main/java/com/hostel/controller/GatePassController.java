@@ -31,8 +31,13 @@ public class GatePassController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all gate passes")
-    public ResponseEntity<List<GatePass>> getAllGatePasses() {
+    @Operation(summary = "Get all gate passes", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllGatePasses(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(gatePassService.getGatePassesPage(after, limit));
+        }
         List<GatePass> gatePasses = gatePassService.getAllGatePasses();
         return ResponseEntity.ok(gatePasses);
     }
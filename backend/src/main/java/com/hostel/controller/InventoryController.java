@@ -35,8 +35,13 @@ public class InventoryController {
     }
     
     @GetMapping("/items")
-    @Operation(summary = "Get all inventory items")
-    public ResponseEntity<List<InventoryItem>> getAllItems() {
+    @Operation(summary = "Get all inventory items", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllItems(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(inventoryService.getItemsPage(after, limit));
+        }
         List<InventoryItem> items = inventoryService.getAllItems();
         return ResponseEntity.ok(items);
     }
@@ -89,8 +94,13 @@ public class InventoryController {
     }
     
     @GetMapping("/allocations")
-    @Operation(summary = "Get all item allocations")
-    public ResponseEntity<List<ItemAllocation>> getAllAllocations() {
+    @Operation(summary = "Get all item allocations", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllAllocations(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(inventoryService.getAllocationsPage(after, limit));
+        }
         List<ItemAllocation> allocations = inventoryService.getAllAllocations();
         return ResponseEntity.ok(allocations);
     }
@@ -31,8 +31,13 @@ public class LaundryController {
     }
     
     @GetMapping("/requests")
-    @Operation(summary = "Get all laundry requests")
-    public ResponseEntity<List<LaundryRequest>> getAllRequests() {
+    @Operation(summary = "Get all laundry requests", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllRequests(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(laundryService.getRequestsPage(after, limit));
+        }
         List<LaundryRequest> requests = laundryService.getAllRequests();
         return ResponseEntity.ok(requests);
     }
@@ -31,8 +31,13 @@ public class LeaveRequestController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all leave requests")
-    public ResponseEntity<List<LeaveRequest>> getAllLeaveRequests() {
+    @Operation(summary = "Get all leave requests", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllLeaveRequests(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(leaveRequestService.getLeaveRequestsPage(after, limit));
+        }
         List<LeaveRequest> requests = leaveRequestService.getAllLeaveRequests();
         return ResponseEntity.ok(requests);
     }
@@ -34,8 +34,13 @@ public class MaintenanceScheduleController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all maintenance schedules")
-    public ResponseEntity<List<MaintenanceSchedule>> getAllSchedules() {
+    @Operation(summary = "Get all maintenance schedules", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllSchedules(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(maintenanceScheduleService.getSchedulesPage(after, limit));
+        }
         List<MaintenanceSchedule> schedules = maintenanceScheduleService.getAllSchedules();
         return ResponseEntity.ok(schedules);
     }
@@ -34,8 +34,13 @@ public class MessMenuController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all mess menus")
-    public ResponseEntity<List<MessMenu>> getAllMessMenus() {
+    @Operation(summary = "Get all mess menus", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllMessMenus(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(messMenuService.getMessMenusPage(after, limit));
+        }
         List<MessMenu> menus = messMenuService.getAllMessMenus();
         return ResponseEntity.ok(menus);
     }
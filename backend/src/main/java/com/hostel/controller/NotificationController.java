@@ -46,8 +46,13 @@ public class NotificationController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all notifications")
-    public ResponseEntity<List<Notification>> getAllNotifications() {
+    @Operation(summary = "Get all notifications", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllNotifications(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(notificationService.getNotificationsPage(after, limit));
+        }
         List<Notification> notifications = notificationService.getAllNotifications();
         return ResponseEntity.ok(notifications);
     }
@@ -1,16 +1,28 @@
 package com.hostel.controller;
 
+import com.hostel.allocation.OccupancyMap;
+import com.hostel.dto.BatchAllocationRequest;
+import com.hostel.dto.BatchAllocationResult;
+import com.hostel.dto.RoomChangeExecutionResult;
 import com.hostel.model.*;
+import com.hostel.service.OccupancyAnalyticsService;
+import com.hostel.service.RoomImportService;
 import com.hostel.service.RoomService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +34,8 @@ import java.util.Map;
 public class RoomController {
     
     private final RoomService roomService;
+    private final RoomImportService roomImportService;
+    private final OccupancyAnalyticsService occupancyAnalyticsService;
     
     // ============ ROOM ENDPOINTS ============
     
@@ -33,9 +47,29 @@ public class RoomController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdRoom);
     }
     
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import rooms", description = "Creates the rooms and their beds in one transaction")
+    public ResponseEntity<Map<String, Object>> importRooms(@RequestBody List<Room> rooms) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(roomImportService.importRooms(rooms));
+    }
+    
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import rooms from CSV",
+            description = "Header row: roomNumber,roomType,capacity,floor,block,rentAmount,hasAc,hasAttachedBathroom,description")
+    public ResponseEntity<Map<String, Object>> importRoomsCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(roomImportService.importRoomsCsv(file.getInputStream()));
+    }
+    
     @GetMapping
-    @Operation(summary = "Get all rooms")
-    public ResponseEntity<List<Room>> getAllRooms() {
+    @Operation(summary = "Get all rooms", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllRooms(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(roomService.getRoomsPage(after, limit));
+        }
         List<Room> rooms = roomService.getAllRooms();
         return ResponseEntity.ok(rooms);
     }
@@ -132,6 +166,59 @@ public class RoomController {
         return ResponseEntity.ok(bed);
     }
     
+    // ============ LIVE OCCUPANCY ENDPOINTS ============
+    
+    @GetMapping("/occupancy")
+    @Operation(summary = "Query live bed occupancy",
+            description = "Served from memory. vacancies matches an exact number of free beds, minVacancies a lower bound")
+    public ResponseEntity<Map<String, Object>> getOccupancy(
+            @RequestParam(required = false) String block,
+            @RequestParam(required = false) Integer floor,
+            @RequestParam(required = false) String roomType,
+            @RequestParam(required = false) Integer vacancies,
+            @RequestParam(required = false) Integer minVacancies) {
+        List<OccupancyMap.RoomVacancy> rooms = roomService.findVacancies(block, floor, roomType, vacancies, minVacancies);
+        Map<String, Object> response = new LinkedHashMap<>(roomService.getOccupancySummary());
+        response.put("matchingRooms", rooms.size());
+        response.put("matchingFreeBeds", rooms.stream().mapToInt(OccupancyMap.RoomVacancy::freeBeds).sum());
+        response.put("rooms", rooms);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/occupancy/beds/{bedId}")
+    @Operation(summary = "Get live state of a bed")
+    public ResponseEntity<OccupancyMap.BedState> getBedState(@PathVariable Long bedId) {
+        return ResponseEntity.ok(roomService.getBedState(bedId));
+    }
+    
+    @GetMapping("/occupancy/history")
+    @Operation(summary = "Get daily occupancy history for all rooms, a block or a room")
+    public ResponseEntity<Map<String, Object>> getOccupancyHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String block,
+            @RequestParam(required = false) Long roomId) {
+        return ResponseEntity.ok(occupancyAnalyticsService.getHistory(from, to, block, roomId));
+    }
+    
+    @GetMapping("/occupancy/forecast")
+    @Operation(summary = "Forecast vacancies from the end dates of active allocations")
+    public ResponseEntity<Map<String, Object>> getVacancyForecast(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) String block) {
+        return ResponseEntity.ok(occupancyAnalyticsService.getForecast(days, block));
+    }
+    
+    @PostMapping("/occupancy/snapshots")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild occupancy snapshots for a past date range")
+    public ResponseEntity<Map<String, Object>> rebuildSnapshots(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int rows = occupancyAnalyticsService.backfill(from, to);
+        return ResponseEntity.ok(Map.of("from", from, "to", to, "rowsWritten", rows));
+    }
+    
     // ============ ROOM ALLOCATION ENDPOINTS ============
     
     @PostMapping("/allocations")
@@ -142,9 +229,21 @@ public class RoomController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdAllocation);
     }
     
+    @PostMapping("/allocations/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Allocate beds to many students at once", description = "Reports students that could not be placed")
+    public ResponseEntity<BatchAllocationResult> allocateBatch(@Valid @RequestBody BatchAllocationRequest request) {
+        return ResponseEntity.ok(roomService.allocateBatch(request));
+    }
+    
     @GetMapping("/allocations")
-    @Operation(summary = "Get all room allocations")
-    public ResponseEntity<List<RoomAllocation>> getAllAllocations() {
+    @Operation(summary = "Get all room allocations", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllAllocations(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(roomService.getAllocationsPage(after, limit));
+        }
         List<RoomAllocation> allocations = roomService.getAllAllocations();
         return ResponseEntity.ok(allocations);
     }
@@ -188,8 +287,13 @@ public class RoomController {
     }
     
     @GetMapping("/maintenance")
-    @Operation(summary = "Get all maintenance requests")
-    public ResponseEntity<List<RoomMaintenance>> getAllMaintenanceRequests() {
+    @Operation(summary = "Get all maintenance requests", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllMaintenanceRequests(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(roomService.getMaintenanceRequestsPage(after, limit));
+        }
         List<RoomMaintenance> maintenanceList = roomService.getAllMaintenanceRequests();
         return ResponseEntity.ok(maintenanceList);
     }
@@ -231,7 +335,9 @@ public class RoomController {
         String status = request.get("status");
         String assignedTo = request.get("assignedTo");
         String remarks = request.get("remarks");
-        RoomMaintenance maintenance = roomService.updateMaintenanceStatus(id, status, assignedTo, remarks);
+        LocalDate expectedCompletionDate = request.get("expectedCompletionDate") == null
+                ? null : LocalDate.parse(request.get("expectedCompletionDate"));
+        RoomMaintenance maintenance = roomService.updateMaintenanceStatus(id, status, assignedTo, remarks, expectedCompletionDate);
         return ResponseEntity.ok(maintenance);
     }
     
@@ -253,8 +359,13 @@ public class RoomController {
     }
     
     @GetMapping("/change-requests")
-    @Operation(summary = "Get all room change requests")
-    public ResponseEntity<List<RoomChangeRequest>> getAllRoomChangeRequests() {
+    @Operation(summary = "Get all room change requests", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllRoomChangeRequests(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(roomService.getRoomChangeRequestsPage(after, limit));
+        }
         List<RoomChangeRequest> requests = roomService.getAllRoomChangeRequests();
         return ResponseEntity.ok(requests);
     }
@@ -292,6 +403,20 @@ public class RoomController {
         return ResponseEntity.ok(updatedRequest);
     }
     
+    @PostMapping("/change-requests/{id}/execute")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Carry out an approved room change", description = "Moves the student to a free bed in the requested room")
+    public ResponseEntity<RoomChangeRequest> executeRoomChangeRequest(@PathVariable Long id) {
+        return ResponseEntity.ok(roomService.executeRoomChangeRequest(id));
+    }
+    
+    @PostMapping("/change-requests/execute-approved")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Carry out all approved room changes", description = "Resolves swaps and cycles between students")
+    public ResponseEntity<RoomChangeExecutionResult> executeApprovedRoomChanges() {
+        return ResponseEntity.ok(roomService.executeApprovedRoomChanges());
+    }
+    
     @PatchMapping("/change-requests/{id}/reject")
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
     @Operation(summary = "Reject room change request")
@@ -2,14 +2,21 @@ package com.hostel.controller;
 
 import com.hostel.dto.SearchCriteria;
 import com.hostel.model.*;
+import com.hostel.search.SearchExporter;
+import com.hostel.search.Suggestion;
 import com.hostel.service.SearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -25,48 +32,133 @@ public class SearchController {
     @PostMapping("/advanced")
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
     @Operation(summary = "Advanced search across all entities")
-    public ResponseEntity<Map<String, Object>> advancedSearch(@RequestBody SearchCriteria criteria) {
-        Map<String, Object> results = searchService.advancedSearch(criteria);
+    public ResponseEntity<Map<String, Object>> advancedSearch(
+            @RequestBody SearchCriteria criteria,
+            @RequestParam(defaultValue = "false") boolean parallel) {
+        Map<String, Object> results = parallel
+                ? searchService.parallelAdvancedSearch(criteria)
+                : searchService.advancedSearch(criteria);
         return ResponseEntity.ok(results);
     }
     
     @GetMapping("/quick")
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
     @Operation(summary = "Quick search with a single search term")
-    public ResponseEntity<Map<String, Object>> quickSearch(@RequestParam String searchTerm) {
-        Map<String, Object> results = searchService.quickSearch(searchTerm);
+    public ResponseEntity<Map<String, Object>> quickSearch(
+            @RequestParam String searchTerm,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        Map<String, Object> results = fuzzy
+                ? searchService.fuzzySearch(searchTerm)
+                : searchService.quickSearch(searchTerm);
         return ResponseEntity.ok(results);
     }
     
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Autocomplete student names and room numbers", description = "type is student, room or all")
+    public ResponseEntity<Map<String, List<Suggestion>>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "all") String type,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchService.suggest(prefix, type, limit));
+    }
+    
+    @GetMapping("/facets")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Facet counts for rooms or students",
+            description = "Other query parameters are filters, e.g. block=A&status=AVAILABLE,OCCUPIED")
+    public ResponseEntity<Map<String, Object>> getFacets(
+            @RequestParam(defaultValue = "room") String type,
+            @RequestParam MultiValueMap<String, String> filters) {
+        filters.remove("type");
+        return ResponseEntity.ok(searchService.getFacets(type, filters));
+    }
+    
     @PostMapping("/students")
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
     @Operation(summary = "Search students with criteria")
-    public ResponseEntity<List<Student>> searchStudents(@RequestBody SearchCriteria criteria) {
-        List<Student> students = searchService.searchStudents(criteria);
+    public ResponseEntity<Page<Student>> searchStudents(@RequestBody SearchCriteria criteria) {
+        Page<Student> students = searchService.searchStudents(criteria);
         return ResponseEntity.ok(students);
     }
     
     @PostMapping("/rooms")
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
     @Operation(summary = "Search rooms with criteria")
-    public ResponseEntity<List<Room>> searchRooms(@RequestBody SearchCriteria criteria) {
-        List<Room> rooms = searchService.searchRooms(criteria);
+    public ResponseEntity<Page<Room>> searchRooms(@RequestBody SearchCriteria criteria) {
+        Page<Room> rooms = searchService.searchRooms(criteria);
         return ResponseEntity.ok(rooms);
     }
     
     @PostMapping("/fees")
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
     @Operation(summary = "Search fees with criteria")
-    public ResponseEntity<List<FeePayment>> searchFees(@RequestBody SearchCriteria criteria) {
-        List<FeePayment> fees = searchService.searchFees(criteria);
+    public ResponseEntity<Page<FeePayment>> searchFees(@RequestBody SearchCriteria criteria) {
+        Page<FeePayment> fees = searchService.searchFees(criteria);
         return ResponseEntity.ok(fees);
     }
     
     @PostMapping("/complaints")
     @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
     @Operation(summary = "Search complaints with criteria")
-    public ResponseEntity<List<Complaint>> searchComplaints(@RequestBody SearchCriteria criteria) {
-        List<Complaint> complaints = searchService.searchComplaints(criteria);
+    public ResponseEntity<Page<Complaint>> searchComplaints(@RequestBody SearchCriteria criteria) {
+        Page<Complaint> complaints = searchService.searchComplaints(criteria);
         return ResponseEntity.ok(complaints);
     }
+    
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get search result cache hit/miss statistics")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(searchService.getCacheStats());
+    }
+    
+    @PostMapping("/students/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Stream student search results as NDJSON or CSV")
+    public void exportStudents(@RequestBody SearchCriteria criteria,
+                               @RequestParam(defaultValue = "ndjson") String format,
+                               HttpServletResponse response) throws IOException {
+        SearchExporter.Format exportFormat = prepareExport(response, "students", format);
+        searchService.exportStudents(criteria, exportFormat, response.getOutputStream());
+    }
+    
+    @PostMapping("/rooms/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Stream room search results as NDJSON or CSV")
+    public void exportRooms(@RequestBody SearchCriteria criteria,
+                            @RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        SearchExporter.Format exportFormat = prepareExport(response, "rooms", format);
+        searchService.exportRooms(criteria, exportFormat, response.getOutputStream());
+    }
+    
+    @PostMapping("/fees/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Stream fee search results as NDJSON or CSV")
+    public void exportFees(@RequestBody SearchCriteria criteria,
+                           @RequestParam(defaultValue = "ndjson") String format,
+                           HttpServletResponse response) throws IOException {
+        SearchExporter.Format exportFormat = prepareExport(response, "fees", format);
+        searchService.exportFees(criteria, exportFormat, response.getOutputStream());
+    }
+    
+    @PostMapping("/complaints/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WARDEN')")
+    @Operation(summary = "Stream complaint search results as NDJSON or CSV")
+    public void exportComplaints(@RequestBody SearchCriteria criteria,
+                                 @RequestParam(defaultValue = "ndjson") String format,
+                                 HttpServletResponse response) throws IOException {
+        SearchExporter.Format exportFormat = prepareExport(response, "complaints", format);
+        searchService.exportComplaints(criteria, exportFormat, response.getOutputStream());
+    }
+    
+    private SearchExporter.Format prepareExport(HttpServletResponse response, String name, String format) {
+        SearchExporter.Format exportFormat = SearchExporter.Format.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + exportFormat.getExtension() + "\"");
+        return exportFormat;
+    }
 }
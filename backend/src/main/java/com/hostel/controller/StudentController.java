@@ -31,8 +31,13 @@ public class StudentController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all students")
-    public ResponseEntity<List<Student>> getAllStudents() {
+    @Operation(summary = "Get all students", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllStudents(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(studentService.getStudentsPage(after, limit));
+        }
         List<Student> students = studentService.getAllStudents();
         return ResponseEntity.ok(students);
     }
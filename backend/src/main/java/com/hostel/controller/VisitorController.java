@@ -31,8 +31,13 @@ public class VisitorController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all visitors")
-    public ResponseEntity<List<Visitor>> getAllVisitors() {
+    @Operation(summary = "Get all visitors", description = "Pass after and/or limit for keyset pagination")
+    public ResponseEntity<?> getAllVisitors(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(visitorService.getVisitorsPage(after, limit));
+        }
         List<Visitor> visitors = visitorService.getAllVisitors();
         return ResponseEntity.ok(visitors);
     }
@@ -0,0 +1,38 @@
+package com.hostel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAllocationRequest {
+    
+    @NotEmpty(message = "At least one student is required")
+    @Valid
+    private List<StudentPreference> students;
+    
+    private LocalDate fromDate; // defaults to today
+    private String allocatedBy;
+    private String remarks;
+    
+    // Any preference left null matches every room
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StudentPreference {
+        @NotNull(message = "Student ID is required")
+        private Long studentId;
+        private String block;
+        private Integer floor;
+        private String roomType;
+        private Boolean hasAc;
+    }
+}
@@ -0,0 +1,38 @@
+package com.hostel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAllocationResult {
+    
+    private int requested;
+    private List<Placement> allocated = new ArrayList<>();
+    private List<Unplaced> unplaced = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Placement {
+        private Long studentId;
+        private String studentName;
+        private Long roomId;
+        private String roomNumber;
+        private Long bedId;
+        private String bedNumber;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Unplaced {
+        private Long studentId;
+        private String reason;
+    }
+}
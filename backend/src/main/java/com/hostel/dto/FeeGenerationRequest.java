@@ -0,0 +1,25 @@
+package com.hostel.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeGenerationRequest {
+    
+    @NotBlank(message = "Semester is required")
+    private String semester;
+    
+    @NotBlank(message = "Academic year is required")
+    private String academicYear;
+    
+    private LocalDate dueDate;
+    private List<Long> feeTypeIds; // defaults to every active mandatory fee type
+    private String remarks;
+}
@@ -0,0 +1,22 @@
+package com.hostel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeGenerationResult {
+    
+    private String semester;
+    private String academicYear;
+    private List<String> feeTypes = new ArrayList<>();
+    private int activeStudents;
+    private int created;
+    private int alreadyExisting; // skipped because the term's fee was generated before
+    private long elapsedMs;
+}
@@ -0,0 +1,38 @@
+package com.hostel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    
+    private List<T> items;
+    private Long nextCursor; // pass as ?after= to fetch the next page, null on the last page
+    private boolean hasMore;
+    private int limit;
+    
+    // Reads one row past the limit to know whether another page exists without a COUNT query
+    public static <T> KeysetPage<T> fetch(Long after, Integer limit,
+                                          BiFunction<Long, Limit, List<T>> query,
+                                          Function<T, Long> idOf) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(limit, 1), MAX_LIMIT);
+        List<T> rows = query.apply(after == null ? 0L : after, Limit.of(pageSize + 1));
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasMore ? idOf.apply(items.get(items.size() - 1)) : null;
+        
+        return new KeysetPage<>(items, nextCursor, hasMore, pageSize);
+    }
+}
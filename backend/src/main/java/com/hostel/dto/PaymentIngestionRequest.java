@@ -0,0 +1,37 @@
+package com.hostel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentIngestionRequest {
+    
+    private String source; // e.g. the settlement file name
+    
+    @NotEmpty(message = "At least one settlement row is required")
+    @Valid
+    private List<SettlementRow> rows;
+    
+    // A row names its fee payment directly, or gives a student and the amount paid
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SettlementRow {
+        @NotBlank(message = "Transaction ID is required")
+        private String transactionId;
+        private Long feePaymentId;
+        private Long studentId;
+        private Double amount;
+        private LocalDate paymentDate; // defaults to today
+        private String paymentMethod;
+    }
+}
@@ -0,0 +1,32 @@
+package com.hostel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentIngestionResult {
+    
+    private String source;
+    private int received;
+    private int applied;
+    private int duplicates;
+    private int unmatched;
+    private List<Outcome> outcomes = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private String transactionId;
+        private String status; // APPLIED, DUPLICATE, UNMATCHED
+        private Long feePaymentId;
+        private String receiptNumber;
+        private String reason;
+    }
+}
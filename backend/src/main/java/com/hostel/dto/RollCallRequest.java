@@ -0,0 +1,36 @@
+package com.hostel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollCallRequest {
+    
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+    
+    @NotEmpty(message = "At least one entry is required")
+    @Valid
+    private List<Entry> entries;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        @NotNull(message = "Student ID is required")
+        private Long studentId;
+        @NotBlank(message = "Status is required")
+        private String status; // PRESENT, ABSENT, LATE, ON_LEAVE
+        private String remarks;
+    }
+}
@@ -0,0 +1,34 @@
+package com.hostel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollCallResult {
+    
+    private LocalDate date;
+    private int received;
+    private int created;
+    private int updated;
+    private int unchanged;
+    private int rejected;
+    private List<Outcome> outcomes = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private Long studentId;
+        private String result; // CREATED, UPDATED, UNCHANGED, REJECTED
+        private Long attendanceId;
+        private String status;
+        private String reason;
+    }
+}
@@ -0,0 +1,26 @@
+package com.hostel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomChangeExecutionResult {
+    
+    private List<Long> completed = new ArrayList<>(); // request ids
+    private int cyclesResolved; // swaps and longer rings applied as a unit
+    private List<Skipped> skipped = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Skipped {
+        private Long requestId;
+        private String reason;
+    }
+}
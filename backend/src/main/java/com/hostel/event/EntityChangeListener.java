@@ -0,0 +1,30 @@
+package com.hostel.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle hook that republishes entity writes as {@link EntityChangedEvent}s.
+ * Consumers should use {@code @TransactionalEventListener} so they only see committed changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityChangeListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.ChangeType.SAVED));
+    }
+    
+    @PostRemove
+    public void onRemoved(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.ChangeType.DELETED));
+    }
+}
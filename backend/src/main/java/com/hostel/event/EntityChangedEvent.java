@@ -0,0 +1,12 @@
+package com.hostel.event;
+
+public record EntityChangedEvent(Object entity, ChangeType changeType) {
+    
+    public enum ChangeType {
+        SAVED, DELETED
+    }
+    
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+}
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
+// One row per student and date, enforced by the unique index AttendanceUniqueIndex creates
 @Entity
 @Table(name = "attendance")
 @Data
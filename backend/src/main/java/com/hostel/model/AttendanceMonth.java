@@ -0,0 +1,49 @@
+package com.hostel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Attendance counts of one student in one calendar month, identified by the first day
+ * of the month. Term figures add up the few months a term spans.
+ */
+@Entity
+@Table(name = "attendance_months",
+        uniqueConstraints = @UniqueConstraint(name = "uk_attendance_months_student_month", columnNames = {"student_id", "month_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceMonth {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+    
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+    
+    @Column(name = "present_days", nullable = false)
+    private Long presentDays = 0L;
+    
+    @Column(name = "absent_days", nullable = false)
+    private Long absentDays = 0L;
+    
+    @Column(name = "late_days", nullable = false)
+    private Long lateDays = 0L;
+    
+    @Column(name = "on_leave_days", nullable = false)
+    private Long onLeaveDays = 0L;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.hostel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Attendance counts of one student over their whole history, kept in step with
+ * attendance writes so the attendance percentage is a single primary key read.
+ */
+@Entity
+@Table(name = "attendance_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSummary {
+    
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+    
+    @Column(name = "present_days", nullable = false)
+    private Long presentDays = 0L;
+    
+    @Column(name = "absent_days", nullable = false)
+    private Long absentDays = 0L;
+    
+    @Column(name = "late_days", nullable = false)
+    private Long lateDays = 0L;
+    
+    @Column(name = "on_leave_days", nullable = false)
+    private Long onLeaveDays = 0L;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.hostel.model;
 
+import com.hostel.event.EntityChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -16,6 +17,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(EntityChangeListener.class)
 public class Complaint {
     
     @Id
@@ -0,0 +1,42 @@
+package com.hostel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running fee balance of one student, kept in step with fee payment writes so balance
+ * lookups are a single primary key read. Amounts are sums of totalAmount per payment
+ * status; lateFees sums the late fee of every payment that is not cancelled.
+ */
+@Entity
+@Table(name = "fee_ledgers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeLedger {
+    
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+    
+    @Column(name = "paid_amount", nullable = false)
+    private Double paidAmount = 0.0;
+    
+    @Column(name = "pending_amount", nullable = false)
+    private Double pendingAmount = 0.0;
+    
+    @Column(name = "overdue_amount", nullable = false)
+    private Double overdueAmount = 0.0;
+    
+    @Column(name = "late_fees", nullable = false)
+    private Double lateFees = 0.0;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
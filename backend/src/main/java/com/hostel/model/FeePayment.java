@@ -1,5 +1,6 @@
 package com.hostel.model;
 
+import com.hostel.event.EntityChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -12,10 +13,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fee_payments")
+@Table(name = "fee_payments",
+        indexes = {
+                @Index(name = "idx_fee_payments_type_due_status", columnList = "fee_type_id, due_date, status"),
+                @Index(name = "idx_fee_payments_term", columnList = "academic_year, semester"),
+                @Index(name = "idx_fee_payments_transaction_id", columnList = "transaction_id", unique = true)
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(EntityChangeListener.class)
 public class FeePayment {
     
     @Id
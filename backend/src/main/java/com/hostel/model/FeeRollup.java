@@ -0,0 +1,61 @@
+package com.hostel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fee amounts summed per day, fee type, payment method and term, kept in step with fee
+ * payment writes. Paid fees count as collected on their payment date; pending and
+ * overdue fees count as outstanding on their due date, with an empty payment method.
+ * Empty strings stand in for missing values so the key columns can be unique.
+ */
+@Entity
+@Table(name = "fee_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_fee_rollups_bucket",
+                columnNames = {"rollup_date", "fee_type_id", "payment_method", "semester", "academic_year"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+    
+    @Column(name = "fee_type_id", nullable = false)
+    private Long feeTypeId;
+    
+    @Column(name = "payment_method", nullable = false)
+    private String paymentMethod = "";
+    
+    @Column(name = "semester", nullable = false)
+    private String semester = "";
+    
+    @Column(name = "academic_year", nullable = false)
+    private String academicYear = "";
+    
+    @Column(name = "collected_amount", nullable = false)
+    private Double collectedAmount = 0.0;
+    
+    @Column(name = "collected_count", nullable = false)
+    private Long collectedCount = 0L;
+    
+    @Column(name = "outstanding_amount", nullable = false)
+    private Double outstandingAmount = 0.0;
+    
+    @Column(name = "outstanding_count", nullable = false)
+    private Long outstandingCount = 0L;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -42,6 +42,16 @@ public class FeeType {
     @Column(name = "is_active")
     private Boolean isActive = true;
     
+    // Late fee policy; unset values fall back to the fees.late-fee.* defaults
+    @Column(name = "late_fee_per_day")
+    private Double lateFeePerDay;
+    
+    @Column(name = "late_fee_grace_days")
+    private Integer lateFeeGraceDays;
+    
+    @Column(name = "late_fee_cap")
+    private Double lateFeeCap;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
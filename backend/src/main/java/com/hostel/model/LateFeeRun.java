@@ -0,0 +1,55 @@
+package com.hostel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Report of one late fee recalculation run.
+ */
+@Entity
+@Table(name = "late_fee_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LateFeeRun {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "as_of_date", nullable = false)
+    private LocalDate asOfDate;
+    
+    @Column(name = "status", nullable = false)
+    private String status = "RUNNING"; // RUNNING, COMPLETED, FAILED
+    
+    @Column(name = "triggered_by")
+    private String triggeredBy; // SCHEDULER or a username
+    
+    // Distinct (fee type, due date) groups of unpaid fees that were past due
+    @Column(name = "due_groups")
+    private Integer dueGroups = 0;
+    
+    @Column(name = "newly_overdue")
+    private Integer newlyOverdue = 0;
+    
+    @Column(name = "late_fees_recalculated")
+    private Integer lateFeesRecalculated = 0;
+    
+    @Column(name = "ledger_rows_corrected")
+    private Integer ledgerRowsCorrected = 0;
+    
+    @Column(name = "message", length = 500)
+    private String message;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,40 @@
+package com.hostel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Daily occupancy rollup. Rows with a roomId are per room; rows without one are the
+ * aggregate for their block.
+ */
+@Entity
+@Table(name = "occupancy_snapshots",
+        indexes = @Index(name = "idx_occupancy_snapshots_date_block", columnList = "snapshot_date, block"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancySnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+    
+    @Column(name = "room_id")
+    private Long roomId;
+    
+    @Column(name = "block")
+    private String block;
+    
+    @Column(name = "occupied_beds", nullable = false)
+    private Integer occupiedBeds;
+    
+    @Column(name = "total_beds", nullable = false)
+    private Integer totalBeds;
+}
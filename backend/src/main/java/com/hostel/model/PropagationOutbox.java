@@ -0,0 +1,40 @@
+package com.hostel.model;
+
+import com.hostel.event.EntityChangeListener;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending copy of a renamed student or room into the tables that denormalize it. Written in
+ * the same transaction as the rename and deleted once the copies are updated.
+ */
+@Entity
+@Table(name = "propagation_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(EntityChangeListener.class)
+public class PropagationOutbox {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "kind", nullable = false)
+    private String kind; // STUDENT_NAME, ROOM_NUMBER
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Column(name = "previous_value")
+    private String previousValue;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -12,7 +12,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "room_allocations")
+@Table(name = "room_allocations",
+        indexes = @Index(name = "idx_room_allocations_status_to_date", columnList = "status, to_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
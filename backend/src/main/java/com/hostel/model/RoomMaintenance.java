@@ -1,5 +1,6 @@
 package com.hostel.model;
 
+import com.hostel.event.EntityChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,10 +10,12 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "room_maintenance")
+@EntityListeners(EntityChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,6 +54,10 @@ public class RoomMaintenance {
     @Column(name = "assigned_date")
     private LocalDateTime assignedDate;
     
+    // Open tickets keep the room out of allocation until this date, or until closed if unset
+    @Column(name = "expected_completion_date")
+    private LocalDate expectedCompletionDate;
+    
     @Column(name = "completed_date")
     private LocalDateTime completedDate;
     
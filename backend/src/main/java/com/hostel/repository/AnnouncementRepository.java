@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface AnnouncementRepository extends JpaRepository<Announcement, Long> {
+public interface AnnouncementRepository extends JpaRepository<Announcement, Long>, KeysetRepository<Announcement> {
     List<Announcement> findByCategory(String category);
     List<Announcement> findByIsActive(Boolean isActive);
     List<Announcement> findByTargetAudience(String targetAudience);
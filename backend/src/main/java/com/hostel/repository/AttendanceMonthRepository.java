@@ -0,0 +1,13 @@
+package com.hostel.repository;
+
+import com.hostel.model.AttendanceMonth;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AttendanceMonthRepository extends JpaRepository<AttendanceMonth, Long> {
+    List<AttendanceMonth> findByStudentIdAndMonthStartBetween(Long studentId, LocalDate from, LocalDate to);
+}
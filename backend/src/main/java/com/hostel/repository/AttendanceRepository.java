@@ -6,15 +6,17 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, KeysetRepository<Attendance> {
     List<Attendance> findByStudentId(Long studentId);
     List<Attendance> findByDate(LocalDate date);
     List<Attendance> findByStatus(String status);
     Optional<Attendance> findByStudentIdAndDate(Long studentId, LocalDate date);
+    List<Attendance> findByDateAndStudentIdIn(LocalDate date, Collection<Long> studentIds);
     List<Attendance> findByStudentIdAndDateBetween(Long studentId, LocalDate startDate, LocalDate endDate);
     List<Attendance> findByDateBetween(LocalDate startDate, LocalDate endDate);
     
@@ -0,0 +1,9 @@
+package com.hostel.repository;
+
+import com.hostel.model.AttendanceSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttendanceSummaryRepository extends JpaRepository<AttendanceSummary, Long> {
+}
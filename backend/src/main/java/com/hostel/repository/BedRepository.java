@@ -2,8 +2,12 @@ package com.hostel.repository;
 
 import com.hostel.model.Bed;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +18,12 @@ public interface BedRepository extends JpaRepository<Bed, Long> {
     List<Bed> findByIsOccupied(Boolean isOccupied);
     Optional<Bed> findByStudentId(Long studentId);
     List<Bed> findByRoomIdAndStatus(Long roomId, String status);
+    List<Bed> findByRoomIdInAndStatus(Collection<Long> roomIds, String status);
+    
+    // Conditional claim: only one of several concurrent callers sees 1 for the same bed
+    @Modifying
+    @Query("UPDATE Bed b SET b.status = 'OCCUPIED', b.isOccupied = true, b.studentId = :studentId, " +
+            "b.studentName = :studentName, b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id AND b.status = 'AVAILABLE'")
+    int claim(@Param("id") Long id, @Param("studentId") Long studentId, @Param("studentName") String studentName);
 }
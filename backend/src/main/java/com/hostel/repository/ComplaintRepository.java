@@ -2,12 +2,13 @@ package com.hostel.repository;
 
 import com.hostel.model.Complaint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
+public interface ComplaintRepository extends JpaRepository<Complaint, Long>, KeysetRepository<Complaint>, JpaSpecificationExecutor<Complaint> {
     List<Complaint> findByStudentId(Long studentId);
     List<Complaint> findByStatus(String status);
     List<Complaint> findByCategory(String category);
@@ -8,7 +8,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, KeysetRepository<Document> {
     List<Document> findByStudentId(Long studentId);
     List<Document> findByDocumentType(String documentType);
     List<Document> findByVerificationStatus(String verificationStatus);
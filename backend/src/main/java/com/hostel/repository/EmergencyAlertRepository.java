@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface EmergencyAlertRepository extends JpaRepository<EmergencyAlert, Long> {
+public interface EmergencyAlertRepository extends JpaRepository<EmergencyAlert, Long>, KeysetRepository<EmergencyAlert> {
     List<EmergencyAlert> findByStudentId(Long studentId);
     List<EmergencyAlert> findByStatus(String status);
     List<EmergencyAlert> findByAlertType(String alertType);
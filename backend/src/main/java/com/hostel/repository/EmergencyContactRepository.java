@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EmergencyContactRepository extends JpaRepository<EmergencyContact, Long> {
+public interface EmergencyContactRepository extends JpaRepository<EmergencyContact, Long>, KeysetRepository<EmergencyContact> {
     List<EmergencyContact> findByStudentId(Long studentId);
     Optional<EmergencyContact> findByStudentIdAndIsPrimary(Long studentId, Boolean isPrimary);
     List<EmergencyContact> findByStudentIdOrderByPriorityAsc(Long studentId);
@@ -0,0 +1,9 @@
+package com.hostel.repository;
+
+import com.hostel.model.FeeLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FeeLedgerRepository extends JpaRepository<FeeLedger, Long> {
+}
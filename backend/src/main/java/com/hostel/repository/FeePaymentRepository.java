@@ -2,23 +2,35 @@ package com.hostel.repository;
 
 import com.hostel.model.FeePayment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface FeePaymentRepository extends JpaRepository<FeePayment, Long> {
+public interface FeePaymentRepository extends JpaRepository<FeePayment, Long>, KeysetRepository<FeePayment>, JpaSpecificationExecutor<FeePayment> {
     List<FeePayment> findByStudentId(Long studentId);
+    List<FeePayment> findByStudentIdIn(Collection<Long> studentIds);
     List<FeePayment> findByStatus(String status);
     List<FeePayment> findByFeeTypeId(Long feeTypeId);
     List<FeePayment> findByStudentIdAndStatus(Long studentId, String status);
+    List<FeePayment> findByStudentIdInAndStatusIn(Collection<Long> studentIds, Collection<String> statuses);
+    boolean existsByTransactionId(String transactionId);
+    
+    @Query("SELECT f.transactionId FROM FeePayment f WHERE f.transactionId IN :transactionIds")
+    List<String> findExistingTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
     List<FeePayment> findByDueDateBefore(LocalDate date);
     List<FeePayment> findByPaymentDateBetween(LocalDate startDate, LocalDate endDate);
     List<FeePayment> findBySemester(String semester);
     List<FeePayment> findByAcademicYear(String academicYear);
     
+    @Query("SELECT f.studentId, f.feeTypeId FROM FeePayment f WHERE f.semester = :semester AND f.academicYear = :academicYear")
+    List<Object[]> findStudentAndFeeTypeByTerm(@Param("semester") String semester, @Param("academicYear") String academicYear);
+    
     @Query("SELECT SUM(f.totalAmount) FROM FeePayment f WHERE f.studentId = :studentId AND f.status = 'PAID'")
     Double getTotalPaidByStudent(Long studentId);
     
@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FeeTypeRepository extends JpaRepository<FeeType, Long> {
+public interface FeeTypeRepository extends JpaRepository<FeeType, Long>, KeysetRepository<FeeType> {
     Optional<FeeType> findByName(String name);
     List<FeeType> findByIsActive(Boolean isActive);
     List<FeeType> findByIsMandatory(Boolean isMandatory);
@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface GatePassRepository extends JpaRepository<GatePass, Long> {
+public interface GatePassRepository extends JpaRepository<GatePass, Long>, KeysetRepository<GatePass> {
     List<GatePass> findByStudentId(Long studentId);
     List<GatePass> findByStatus(String status);
     List<GatePass> findByPassType(String passType);
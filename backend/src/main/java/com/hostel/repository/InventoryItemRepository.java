@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
+public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long>, KeysetRepository<InventoryItem> {
     Optional<InventoryItem> findByItemCode(String itemCode);
     List<InventoryItem> findByCategory(String category);
     List<InventoryItem> findByStatus(String status);
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ItemAllocationRepository extends JpaRepository<ItemAllocation, Long> {
+public interface ItemAllocationRepository extends JpaRepository<ItemAllocation, Long>, KeysetRepository<ItemAllocation> {
     List<ItemAllocation> findByStudentId(Long studentId);
     List<ItemAllocation> findByItemId(Long itemId);
     List<ItemAllocation> findByStatus(String status);
@@ -0,0 +1,12 @@
+package com.hostel.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+
+@NoRepositoryBean
+public interface KeysetRepository<T> extends Repository<T, Long> {
+    List<T> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
@@ -0,0 +1,13 @@
+package com.hostel.repository;
+
+import com.hostel.model.LateFeeRun;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LateFeeRunRepository extends JpaRepository<LateFeeRun, Long> {
+    List<LateFeeRun> findByOrderByIdDesc(Limit limit);
+}
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface LaundryRequestRepository extends JpaRepository<LaundryRequest, Long> {
+public interface LaundryRequestRepository extends JpaRepository<LaundryRequest, Long>, KeysetRepository<LaundryRequest> {
     List<LaundryRequest> findByStudentId(Long studentId);
     List<LaundryRequest> findByStatus(String status);
     List<LaundryRequest> findByPaymentStatus(String paymentStatus);
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long> {
+public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long>, KeysetRepository<LeaveRequest> {
     List<LeaveRequest> findByStudentId(Long studentId);
     List<LeaveRequest> findByStatus(String status);
     List<LeaveRequest> findByStudentIdOrderByCreatedAtDesc(Long studentId);
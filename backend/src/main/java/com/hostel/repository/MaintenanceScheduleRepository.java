@@ -8,7 +8,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface MaintenanceScheduleRepository extends JpaRepository<MaintenanceSchedule, Long> {
+public interface MaintenanceScheduleRepository extends JpaRepository<MaintenanceSchedule, Long>, KeysetRepository<MaintenanceSchedule> {
     List<MaintenanceSchedule> findByStatus(String status);
     List<MaintenanceSchedule> findByMaintenanceType(String maintenanceType);
     List<MaintenanceSchedule> findByCategory(String category);
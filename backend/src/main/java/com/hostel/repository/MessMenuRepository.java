@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MessMenuRepository extends JpaRepository<MessMenu, Long> {
+public interface MessMenuRepository extends JpaRepository<MessMenu, Long>, KeysetRepository<MessMenu> {
     List<MessMenu> findByDate(LocalDate date);
     List<MessMenu> findByMealType(String mealType);
     Optional<MessMenu> findByDateAndMealType(LocalDate date, String mealType);
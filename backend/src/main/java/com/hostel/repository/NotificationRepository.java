@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, KeysetRepository<Notification> {
     List<Notification> findByTargetAudience(String targetAudience);
     List<Notification> findByTargetUserId(Long targetUserId);
     List<Notification> findByType(String type);
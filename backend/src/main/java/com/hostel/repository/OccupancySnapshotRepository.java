@@ -0,0 +1,27 @@
+package com.hostel.repository;
+
+import com.hostel.model.OccupancySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OccupancySnapshotRepository extends JpaRepository<OccupancySnapshot, Long> {
+    List<OccupancySnapshot> findBySnapshotDateBetweenAndRoomIdOrderBySnapshotDate(LocalDate from, LocalDate to, Long roomId);
+    List<OccupancySnapshot> findBySnapshotDateBetweenAndRoomIdIsNullAndBlockOrderBySnapshotDate(LocalDate from, LocalDate to, String block);
+    
+    // Whole-hostel series, summed from the block rows
+    @Query("SELECT s.snapshotDate, SUM(s.occupiedBeds), SUM(s.totalBeds) FROM OccupancySnapshot s " +
+            "WHERE s.snapshotDate BETWEEN :from AND :to AND s.roomId IS NULL " +
+            "GROUP BY s.snapshotDate ORDER BY s.snapshotDate")
+    List<Object[]> sumByDate(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query("DELETE FROM OccupancySnapshot s WHERE s.snapshotDate BETWEEN :from AND :to")
+    int deleteBySnapshotDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,13 @@
+package com.hostel.repository;
+
+import com.hostel.model.PropagationOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PropagationOutboxRepository extends JpaRepository<PropagationOutbox, Long> {
+    List<PropagationOutbox> findByOrderByIdAsc(Limit limit);
+}
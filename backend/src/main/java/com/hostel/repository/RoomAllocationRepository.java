@@ -2,16 +2,33 @@ package com.hostel.repository;
 
 import com.hostel.model.RoomAllocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RoomAllocationRepository extends JpaRepository<RoomAllocation, Long> {
+public interface RoomAllocationRepository extends JpaRepository<RoomAllocation, Long>, KeysetRepository<RoomAllocation> {
     List<RoomAllocation> findByStudentId(Long studentId);
     List<RoomAllocation> findByRoomId(Long roomId);
     List<RoomAllocation> findByStatus(String status);
     Optional<RoomAllocation> findByStudentIdAndStatus(Long studentId, String status);
     List<RoomAllocation> findByRoomIdAndStatus(Long roomId, String status);
+    List<RoomAllocation> findByStudentIdInAndStatus(Collection<Long> studentIds, String status);
+    
+    // Allocations that held a bed at some point in [from, to]; used only to backfill snapshots
+    @Query("SELECT a FROM RoomAllocation a WHERE a.status <> 'CANCELLED' AND a.fromDate <= :to " +
+            "AND (a.toDate IS NULL OR a.toDate > :from)")
+    List<RoomAllocation> findOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // Active allocations ending per day in [from, to], optionally for one block
+    @Query("SELECT a.toDate, COUNT(a) FROM RoomAllocation a WHERE a.status = 'ACTIVE' " +
+            "AND a.toDate BETWEEN :from AND :to " +
+            "AND (:block IS NULL OR a.roomId IN (SELECT r.id FROM Room r WHERE r.block = :block)) " +
+            "GROUP BY a.toDate")
+    List<Object[]> countEndingByDate(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("block") String block);
 }
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface RoomChangeRequestRepository extends JpaRepository<RoomChangeRequest, Long> {
+public interface RoomChangeRequestRepository extends JpaRepository<RoomChangeRequest, Long>, KeysetRepository<RoomChangeRequest> {
     List<RoomChangeRequest> findByStudentId(Long studentId);
     List<RoomChangeRequest> findByStatus(String status);
     List<RoomChangeRequest> findByCurrentRoomId(Long currentRoomId);
@@ -4,12 +4,14 @@ import com.hostel.model.RoomMaintenance;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface RoomMaintenanceRepository extends JpaRepository<RoomMaintenance, Long> {
+public interface RoomMaintenanceRepository extends JpaRepository<RoomMaintenance, Long>, KeysetRepository<RoomMaintenance> {
     List<RoomMaintenance> findByRoomId(Long roomId);
     List<RoomMaintenance> findByStatus(String status);
+    List<RoomMaintenance> findByStatusIn(Collection<String> statuses);
     List<RoomMaintenance> findByPriority(String priority);
     List<RoomMaintenance> findByCategory(String category);
     List<RoomMaintenance> findByAssignedTo(String assignedTo);
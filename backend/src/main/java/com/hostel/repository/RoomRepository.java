@@ -2,13 +2,18 @@ package com.hostel.repository;
 
 import com.hostel.model.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RoomRepository extends JpaRepository<Room, Long> {
+public interface RoomRepository extends JpaRepository<Room, Long>, KeysetRepository<Room>, JpaSpecificationExecutor<Room> {
     Optional<Room> findByRoomNumber(String roomNumber);
     List<Room> findByStatus(String status);
     List<Room> findByRoomType(String roomType);
@@ -16,4 +21,21 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     List<Room> findByBlock(String block);
     List<Room> findByStatusAndRoomType(String status, String roomType);
     boolean existsByRoomNumber(String roomNumber);
+    List<Room> findByRoomNumberIn(Collection<String> roomNumbers);
+    
+    // Atomic occupancy changes: the WHERE clause is re-checked under the row lock, so
+    // concurrent allocations can never push a room past its capacity. Return 0 on conflict.
+    @Modifying
+    @Query("UPDATE Room r SET r.currentOccupancy = COALESCE(r.currentOccupancy, 0) + :count, " +
+            "r.status = CASE WHEN COALESCE(r.currentOccupancy, 0) + :count >= r.capacity THEN 'FULL' ELSE 'OCCUPIED' END, " +
+            "r.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE r.id = :id AND COALESCE(r.currentOccupancy, 0) + :count <= r.capacity")
+    int claimOccupancy(@Param("id") Long id, @Param("count") int count);
+    
+    @Modifying
+    @Query("UPDATE Room r SET r.currentOccupancy = r.currentOccupancy - 1, " +
+            "r.status = CASE WHEN r.currentOccupancy - 1 <= 0 THEN 'AVAILABLE' ELSE 'OCCUPIED' END, " +
+            "r.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE r.id = :id AND r.currentOccupancy > 0")
+    int releaseOccupancy(@Param("id") Long id);
 }
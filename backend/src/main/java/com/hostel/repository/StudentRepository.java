@@ -1,16 +1,30 @@
 package com.hostel.repository;
 
 import com.hostel.model.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, KeysetRepository<Student>, JpaSpecificationExecutor<Student> {
     Optional<Student> findByEmail(String email);
     List<Student> findByRoomNumber(String roomNumber);
     List<Student> findByFeesPaid(Boolean feesPaid);
     long countByFeesPaid(Boolean feesPaid);
+    
+    /**
+     * Keyset page of {id, name} for students with the given status, without loading entities.
+     */
+    @Query("SELECT s.id, s.name FROM Student s WHERE s.status = :status AND s.id > :after ORDER BY s.id")
+    List<Object[]> findIdAndNameByStatusAfter(@Param("status") String status, @Param("after") Long after, Limit limit);
+    
+    @Query("SELECT s.id, s.name FROM Student s WHERE s.id IN :ids")
+    List<Object[]> findIdAndNameByIdIn(@Param("ids") Collection<Long> ids);
 }
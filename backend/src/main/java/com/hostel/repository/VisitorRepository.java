@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface VisitorRepository extends JpaRepository<Visitor, Long> {
+public interface VisitorRepository extends JpaRepository<Visitor, Long>, KeysetRepository<Visitor> {
     List<Visitor> findByStudentId(Long studentId);
     List<Visitor> findByStatus(String status);
     List<Visitor> findByEntryTimeBetween(LocalDateTime startTime, LocalDateTime endTime);
@@ -0,0 +1,180 @@
+package com.hostel.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One bitmap per (field, value) over dense document ordinals. Values selected within a
+ * field are OR-ed, fields are AND-ed, and each field's counts ignore its own selection so
+ * the caller can still see what switching to another value would give.
+ */
+public class BitmapFacets {
+    
+    private final List<String> fields;
+    private final Map<String, Map<String, BitSet>> bitmaps = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<Long, Map<String, String>> documentValues = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet freeOrdinals = new BitSet();
+    private int nextOrdinal;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public BitmapFacets(String... fields) {
+        this.fields = List.of(fields);
+        for (String field : fields) {
+            bitmaps.put(field, new TreeMap<>());
+        }
+    }
+    
+    public List<String> fields() {
+        return fields;
+    }
+    
+    public void put(long id, Map<String, String> values) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            int ordinal = allocateOrdinal();
+            ordinals.put(id, ordinal);
+            live.set(ordinal);
+            
+            Map<String, String> stored = new HashMap<>();
+            for (String field : fields) {
+                String value = values.get(field);
+                if (value != null) {
+                    bitmaps.get(field).computeIfAbsent(value, v -> new BitSet()).set(ordinal);
+                    stored.put(field, value);
+                }
+            }
+            documentValues.put(id, stored);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            bitmaps.values().forEach(Map::clear);
+            ordinals.clear();
+            documentValues.clear();
+            live.clear();
+            freeOrdinals.clear();
+            nextOrdinal = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * @param filters field to accepted values; unknown fields are ignored and an empty value
+     *                set means no restriction on that field
+     * @return "total" matching all filters plus per-field value counts
+     */
+    public Map<String, Object> count(Map<String, ? extends Collection<String>> filters) {
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> selections = new LinkedHashMap<>();
+            for (String field : fields) {
+                Collection<String> accepted = filters.get(field);
+                if (accepted != null && !accepted.isEmpty()) {
+                    selections.put(field, selection(field, accepted));
+                }
+            }
+            
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            for (String field : fields) {
+                BitSet others = matching(selections, field);
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                for (Map.Entry<String, BitSet> entry : bitmaps.get(field).entrySet()) {
+                    int count = intersectionCount(entry.getValue(), others);
+                    if (count > 0) {
+                        counts.put(entry.getKey(), count);
+                    }
+                }
+                facets.put(field, counts);
+            }
+            
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("total", matching(selections, null).cardinality());
+            result.put("facets", facets);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private BitSet selection(String field, Collection<String> accepted) {
+        BitSet union = new BitSet();
+        Map<String, BitSet> values = bitmaps.get(field);
+        for (String value : accepted) {
+            BitSet bits = values.get(value);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+    
+    private BitSet matching(Map<String, BitSet> selections, String excludedField) {
+        BitSet result = (BitSet) live.clone();
+        for (Map.Entry<String, BitSet> entry : selections.entrySet()) {
+            if (!entry.getKey().equals(excludedField)) {
+                result.and(entry.getValue());
+            }
+        }
+        return result;
+    }
+    
+    private static int intersectionCount(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+    
+    private int allocateOrdinal() {
+        int free = freeOrdinals.nextSetBit(0);
+        if (free >= 0) {
+            freeOrdinals.clear(free);
+            return free;
+        }
+        return nextOrdinal++;
+    }
+    
+    private void removeInternal(long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        Map<String, String> stored = documentValues.remove(id);
+        for (Map.Entry<String, String> entry : stored.entrySet()) {
+            Map<String, BitSet> values = bitmaps.get(entry.getKey());
+            BitSet bits = values.get(entry.getValue());
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                values.remove(entry.getValue());
+            }
+        }
+        live.clear(ordinal);
+        freeOrdinals.set(ordinal);
+    }
+}
@@ -0,0 +1,90 @@
+package com.hostel.search;
+
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Facet bitmaps for the dashboard filters: rooms by block/floor/roomType/status and
+ * students by course/yearOfStudy/status.
+ */
+@Component
+@RequiredArgsConstructor
+public class FacetIndex {
+    private static final Logger logger = LoggerFactory.getLogger(FacetIndex.class);
+    
+    private final StudentRepository studentRepository;
+    private final RoomRepository roomRepository;
+    
+    private final BitmapFacets roomFacets = new BitmapFacets("block", "floor", "roomType", "status");
+    private final BitmapFacets studentFacets = new BitmapFacets("course", "yearOfStudy", "status");
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        roomFacets.clear();
+        studentFacets.clear();
+        
+        roomRepository.findAll().forEach(this::indexRoom);
+        studentRepository.findAll().forEach(this::indexStudent);
+        
+        logger.info("Facet index built: {} rooms, {} students", roomFacets.size(), studentFacets.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Object entity = event.entity();
+        if (entity instanceof Student student) {
+            if (event.isDeleted()) {
+                studentFacets.remove(student.getId());
+            } else {
+                indexStudent(student);
+            }
+        } else if (entity instanceof Room room) {
+            if (event.isDeleted()) {
+                roomFacets.remove(room.getId());
+            } else {
+                indexRoom(room);
+            }
+        }
+    }
+    
+    public Map<String, Object> countRooms(Map<String, ? extends Collection<String>> filters) {
+        return roomFacets.count(filters);
+    }
+    
+    public Map<String, Object> countStudents(Map<String, ? extends Collection<String>> filters) {
+        return studentFacets.count(filters);
+    }
+    
+    private void indexRoom(Room room) {
+        Map<String, String> values = new HashMap<>();
+        values.put("block", room.getBlock());
+        values.put("floor", room.getFloor() != null ? room.getFloor().toString() : null);
+        values.put("roomType", room.getRoomType());
+        values.put("status", room.getStatus());
+        roomFacets.put(room.getId(), values);
+    }
+    
+    private void indexStudent(Student student) {
+        Map<String, String> values = new HashMap<>();
+        values.put("course", student.getCourse());
+        values.put("yearOfStudy", student.getYearOfStudy());
+        values.put("status", student.getStatus());
+        studentFacets.put(student.getId(), values);
+    }
+}
@@ -0,0 +1,14 @@
+package com.hostel.search;
+
+import java.util.List;
+
+/**
+ * Typo-tolerant lookup over student name/email and complaint title/description.
+ * Results are ordered best match first.
+ */
+public interface FuzzySearch {
+    
+    List<ScoredId> searchStudents(String term, int limit);
+    
+    List<ScoredId> searchComplaints(String term, int limit);
+}
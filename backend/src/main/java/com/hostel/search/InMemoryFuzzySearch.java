@@ -0,0 +1,86 @@
+package com.hostel.search;
+
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.model.Complaint;
+import com.hostel.model.Student;
+import com.hostel.repository.ComplaintRepository;
+import com.hostel.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * In-JVM trigram index used outside the PostgreSQL profiles (H2/local).
+ */
+@Component
+@Profile("!prod & !vercel")
+@RequiredArgsConstructor
+public class InMemoryFuzzySearch implements FuzzySearch {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryFuzzySearch.class);
+    
+    private final StudentRepository studentRepository;
+    private final ComplaintRepository complaintRepository;
+    
+    private final TrigramIndex studentIndex = new TrigramIndex();
+    private final TrigramIndex complaintIndex = new TrigramIndex();
+    
+    @Value("${search.fuzzy.threshold:0.3}")
+    private double threshold;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        studentIndex.clear();
+        complaintIndex.clear();
+        
+        studentRepository.findAll().forEach(this::indexStudent);
+        complaintRepository.findAll().forEach(this::indexComplaint);
+        
+        logger.info("Trigram index built: {} students, {} complaints", studentIndex.size(), complaintIndex.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Object entity = event.entity();
+        if (entity instanceof Student student) {
+            if (event.isDeleted()) {
+                studentIndex.remove(student.getId());
+            } else {
+                indexStudent(student);
+            }
+        } else if (entity instanceof Complaint complaint) {
+            if (event.isDeleted()) {
+                complaintIndex.remove(complaint.getId());
+            } else {
+                indexComplaint(complaint);
+            }
+        }
+    }
+    
+    @Override
+    public List<ScoredId> searchStudents(String term, int limit) {
+        return studentIndex.search(term, threshold, limit);
+    }
+    
+    @Override
+    public List<ScoredId> searchComplaints(String term, int limit) {
+        return complaintIndex.search(term, threshold, limit);
+    }
+    
+    private void indexStudent(Student student) {
+        studentIndex.index(student.getId(), student.getName(), student.getEmail());
+    }
+    
+    private void indexComplaint(Complaint complaint) {
+        complaintIndex.index(complaint.getId(), complaint.getTitle(), complaint.getDescription());
+    }
+}
@@ -0,0 +1,114 @@
+package com.hostel.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Token to posting-list index. Query tokens match any indexed token they are a prefix of,
+ * and all query tokens must match for a document to be returned.
+ */
+public class InvertedIndex {
+    
+    private final NavigableMap<String, LongPostingList> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTokens = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public void index(long id, String... fields) {
+        Set<String> tokens = new HashSet<>();
+        for (String field : fields) {
+            tokens.addAll(tokenize(field));
+        }
+        
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new LongPostingList()).add(id);
+            }
+            documentTokens.put(id, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTokens.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public long[] search(String query) {
+        List<String> tokens = new ArrayList<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return LongPostingList.EMPTY;
+        }
+        
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            for (String token : tokens) {
+                List<long[]> lists = new ArrayList<>();
+                for (LongPostingList list : postings.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+                    lists.add(list.toArray());
+                }
+                long[] matches = LongPostingList.unionAll(lists);
+                result = result == null ? matches : LongPostingList.intersect(result, matches);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTokens.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void removeInternal(long id) {
+        Set<String> previous = documentTokens.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous) {
+            LongPostingList list = postings.get(token);
+            if (list != null && list.remove(id) && list.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+    
+    static Set<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,77 @@
+package com.hostel.search;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * pg_trgm backed fuzzy search for the PostgreSQL profiles. GIN trigram indexes are
+ * created on startup since the schema is managed by Hibernate ddl-auto. The {@code <%}
+ * operator filters on pg_trgm.word_similarity_threshold, so each search sets it to the
+ * configured threshold for its own transaction.
+ */
+@Component
+@Profile({"prod", "vercel"})
+@RequiredArgsConstructor
+public class PostgresFuzzySearch implements FuzzySearch {
+    private static final Logger logger = LoggerFactory.getLogger(PostgresFuzzySearch.class);
+    
+    private static final String STUDENT_QUERY =
+            "SELECT id, GREATEST(word_similarity(?, name), word_similarity(?, email)) AS score " +
+            "FROM students WHERE ? <% name OR ? <% email " +
+            "ORDER BY score DESC, id LIMIT ?";
+    
+    private static final String COMPLAINT_QUERY =
+            "SELECT id, GREATEST(word_similarity(?, title), word_similarity(?, description)) AS score " +
+            "FROM complaints WHERE ? <% title OR ? <% description " +
+            "ORDER BY score DESC, id LIMIT ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${search.fuzzy.threshold:0.3}")
+    private double threshold;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_students_name_trgm ON students USING gin (name gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_students_email_trgm ON students USING gin (email gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_complaints_title_trgm ON complaints USING gin (title gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_complaints_description_trgm ON complaints USING gin (description gin_trgm_ops)");
+        } catch (DataAccessException e) {
+            logger.warn("Could not create pg_trgm indexes, fuzzy search will fall back to sequential scans: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScoredId> searchStudents(String term, int limit) {
+        return query(STUDENT_QUERY, term, limit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScoredId> searchComplaints(String term, int limit) {
+        return query(COMPLAINT_QUERY, term, limit);
+    }
+    
+    private List<ScoredId> query(String sql, String term, int limit) {
+        // SET LOCAL, with the value passed as a parameter
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                String.class, String.valueOf(threshold));
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new ScoredId(rs.getLong("id"), rs.getDouble("score")),
+                term, term, term, term, limit);
+    }
+}
@@ -0,0 +1,270 @@
+package com.hostel.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Character trie for as-you-type completion. Children are kept in sorted parallel arrays
+ * rather than maps to keep nodes small, and the number of stored (key, id) postings is
+ * capped so memory stays bounded. Exact prefix matches are returned first, then matches
+ * within a small edit distance of the typed prefix.
+ */
+public class PrefixTrie {
+    
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+    
+    private final int maxPostings;
+    private final Node root = new Node();
+    private final Map<Long, String[]> keysById = new HashMap<>();
+    private final Map<Long, String> labels = new HashMap<>();
+    private int postings;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public PrefixTrie(int maxPostings) {
+        this.maxPostings = maxPostings;
+    }
+    
+    /**
+     * Indexes {@code id} under every key, replacing its previous keys; returns false and
+     * keeps the previous keys when the new ones would exceed the posting cap.
+     */
+    public boolean put(long id, String label, Collection<String> keys) {
+        lock.writeLock().lock();
+        try {
+            if (label == null || keys.isEmpty()) {
+                removeInternal(id);
+                return true;
+            }
+            String[] oldKeys = keysById.get(id);
+            int oldKeyCount = oldKeys == null ? 0 : oldKeys.length;
+            if (postings - oldKeyCount + keys.size() > maxPostings) {
+                return false;
+            }
+            removeInternal(id);
+            for (String key : keys) {
+                insert(key, id);
+            }
+            postings += keys.size();
+            keysById.put(id, keys.toArray(new String[0]));
+            labels.put(id, label);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.labels = NO_LABELS;
+            root.children = NO_CHILDREN;
+            root.ids = NO_IDS;
+            keysById.clear();
+            labels.clear();
+            postings = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return labels.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public List<Suggestion> complete(String prefix, int limit, int maxEdits) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> matches = new LinkedHashMap<>();
+            
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.child(normalized.charAt(i));
+            }
+            if (node != null) {
+                collect(node, 0, matches, limit);
+            }
+            
+            if (matches.size() < limit && maxEdits > 0) {
+                int[] firstRow = new int[normalized.length() + 1];
+                for (int i = 0; i < firstRow.length; i++) {
+                    firstRow[i] = i;
+                }
+                for (int edits = 1; edits <= maxEdits && matches.size() < limit; edits++) {
+                    fuzzy(root, normalized, firstRow, edits, matches, limit);
+                }
+            }
+            
+            List<Suggestion> suggestions = new ArrayList<>(matches.size());
+            matches.forEach((id, edits) -> suggestions.add(new Suggestion(id, labels.get(id), edits)));
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Depth-first walk in character order; stops as soon as the limit is reached
+    private boolean collect(Node node, int edits, Map<Long, Integer> matches, int limit) {
+        for (long id : node.ids) {
+            matches.putIfAbsent(id, edits);
+            if (matches.size() >= limit) {
+                return true;
+            }
+        }
+        for (Node child : node.children) {
+            if (collect(child, edits, matches, limit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Levenshtein walk: each level computes one DP row of distances between the typed prefix and the trie path
+    private boolean fuzzy(Node node, String prefix, int[] previousRow, int maxEdits,
+                          Map<Long, Integer> matches, int limit) {
+        for (int c = 0; c < node.labels.length; c++) {
+            char label = node.labels[c];
+            int[] row = new int[previousRow.length];
+            row[0] = previousRow[0] + 1;
+            int rowMin = row[0];
+            for (int i = 1; i < row.length; i++) {
+                int cost = prefix.charAt(i - 1) == label ? 0 : 1;
+                row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), previousRow[i - 1] + cost);
+                rowMin = Math.min(rowMin, row[i]);
+            }
+            
+            Node child = node.children[c];
+            if (row[row.length - 1] <= maxEdits) {
+                if (collect(child, row[row.length - 1], matches, limit)) {
+                    return true;
+                }
+            } else if (rowMin <= maxEdits && fuzzy(child, prefix, row, maxEdits, matches, limit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void insert(String key, long id) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        node.addId(id);
+    }
+    
+    private void removeInternal(long id) {
+        String[] keys = keysById.remove(id);
+        labels.remove(id);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            delete(root, key, 0, id);
+        }
+        postings -= keys.length;
+    }
+    
+    // Returns true when the node became empty and can be unlinked from its parent
+    private boolean delete(Node node, String key, int depth, long id) {
+        if (depth == key.length()) {
+            node.removeId(id);
+        } else {
+            int index = Arrays.binarySearch(node.labels, key.charAt(depth));
+            if (index >= 0 && delete(node.children[index], key, depth + 1, id)) {
+                node.removeChild(index);
+            }
+        }
+        return node.ids.length == 0 && node.children.length == 0;
+    }
+    
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+    
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private long[] ids = NO_IDS;
+        
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+        
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int pos = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            newLabels[pos] = label;
+            newChildren[pos] = new Node();
+            System.arraycopy(labels, pos, newLabels, pos + 1, labels.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[pos];
+        }
+        
+        void removeChild(int index) {
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+        
+        void addId(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index >= 0) {
+                return;
+            }
+            int pos = -index - 1;
+            long[] newIds = new long[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            newIds[pos] = id;
+            System.arraycopy(ids, pos, newIds, pos + 1, ids.length - pos);
+            ids = newIds;
+        }
+        
+        void removeId(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index < 0) {
+                return;
+            }
+            long[] newIds = new long[ids.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(ids, index + 1, newIds, index, ids.length - index - 1);
+            ids = newIds;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.hostel.search;
+
+public record ScoredId(long id, double score) {
+}
@@ -0,0 +1,98 @@
+package com.hostel.search;
+
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.model.Complaint;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.repository.ComplaintRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-process inverted indexes over student name/email/phone, room number and complaint
+ * title/description. Built once at startup and kept current from committed entity writes.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+    
+    private final StudentRepository studentRepository;
+    private final RoomRepository roomRepository;
+    private final ComplaintRepository complaintRepository;
+    
+    private final InvertedIndex studentIndex = new InvertedIndex();
+    private final InvertedIndex roomIndex = new InvertedIndex();
+    private final InvertedIndex complaintIndex = new InvertedIndex();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        studentIndex.clear();
+        roomIndex.clear();
+        complaintIndex.clear();
+        
+        studentRepository.findAll().forEach(this::indexStudent);
+        roomRepository.findAll().forEach(this::indexRoom);
+        complaintRepository.findAll().forEach(this::indexComplaint);
+        
+        logger.info("Search index built: {} students, {} rooms, {} complaints",
+                studentIndex.size(), roomIndex.size(), complaintIndex.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Object entity = event.entity();
+        if (entity instanceof Student student) {
+            if (event.isDeleted()) {
+                studentIndex.remove(student.getId());
+            } else {
+                indexStudent(student);
+            }
+        } else if (entity instanceof Room room) {
+            if (event.isDeleted()) {
+                roomIndex.remove(room.getId());
+            } else {
+                indexRoom(room);
+            }
+        } else if (entity instanceof Complaint complaint) {
+            if (event.isDeleted()) {
+                complaintIndex.remove(complaint.getId());
+            } else {
+                indexComplaint(complaint);
+            }
+        }
+    }
+    
+    public long[] findStudentIds(String term) {
+        return studentIndex.search(term);
+    }
+    
+    public long[] findRoomIds(String term) {
+        return roomIndex.search(term);
+    }
+    
+    public long[] findComplaintIds(String term) {
+        return complaintIndex.search(term);
+    }
+    
+    private void indexStudent(Student student) {
+        studentIndex.index(student.getId(), student.getName(), student.getEmail(), student.getPhoneNumber());
+    }
+    
+    private void indexRoom(Room room) {
+        roomIndex.index(room.getId(), room.getRoomNumber());
+    }
+    
+    private void indexComplaint(Complaint complaint) {
+        complaintIndex.index(complaint.getId(), complaint.getTitle(), complaint.getDescription());
+    }
+}
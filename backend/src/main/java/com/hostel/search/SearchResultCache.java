@@ -0,0 +1,178 @@
+package com.hostel.search;
+
+import com.hostel.dto.SearchCriteria;
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.model.Complaint;
+import com.hostel.model.FeePayment;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.beans.PropertyDescriptor;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size-bounded LRU cache of search pages keyed on entity type and normalised criteria.
+ * Entries expire after a TTL and a committed write to an entity type drops every entry
+ * for that type. A per-type generation counter stops a search that raced with a write
+ * from caching its stale result.
+ */
+@Component
+public class SearchResultCache {
+    
+    public enum Region {
+        STUDENT, ROOM, FEE, COMPLAINT
+    }
+    
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    private final Map<Region, AtomicLong> generations = new EnumMap<>(Region.class);
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    public SearchResultCache(@Value("${search.cache.max-entries:500}") int maxEntries,
+                             @Value("${search.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > SearchResultCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        for (Region region : Region.values()) {
+            generations.put(region, new AtomicLong());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> get(Region region, SearchCriteria criteria, Function<SearchCriteria, Page<T>> loader) {
+        SearchCriteria normalized = normalize(criteria);
+        Key key = new Key(region, normalized);
+        long now = System.nanoTime();
+        
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (now - entry.createdAt() < ttlNanos) {
+                    hits.incrementAndGet();
+                    return (Page<T>) entry.page();
+                }
+                entries.remove(key);
+            }
+        }
+        
+        misses.incrementAndGet();
+        long generation = generations.get(region).get();
+        // The loader sees the normalised criteria so the cached page matches its key
+        Page<T> page = loader.apply(copy(normalized));
+        
+        synchronized (entries) {
+            if (generations.get(region).get() == generation) {
+                entries.put(key, new Entry(page, now));
+            }
+        }
+        return page;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Object entity = event.entity();
+        if (entity instanceof Student) {
+            invalidate(Region.STUDENT);
+        } else if (entity instanceof Room) {
+            invalidate(Region.ROOM);
+        } else if (entity instanceof FeePayment) {
+            invalidate(Region.FEE);
+        } else if (entity instanceof Complaint) {
+            invalidate(Region.COMPLAINT);
+        }
+    }
+    
+    public void invalidate(Region region) {
+        synchronized (entries) {
+            generations.get(region).incrementAndGet();
+            entries.keySet().removeIf(key -> key.region() == region);
+        }
+        invalidations.incrementAndGet();
+    }
+    
+    public void clear() {
+        synchronized (entries) {
+            generations.values().forEach(AtomicLong::incrementAndGet);
+            entries.clear();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+    
+    // Trims strings, treats blanks as absent and upper-cases the sort order so equivalent requests share an entry
+    private SearchCriteria normalize(SearchCriteria criteria) {
+        SearchCriteria normalized = copy(criteria);
+        if (normalized.getSortOrder() != null) {
+            normalized.setSortOrder(normalized.getSortOrder().toUpperCase(Locale.ROOT));
+        }
+        return normalized;
+    }
+    
+    private SearchCriteria copy(SearchCriteria criteria) {
+        SearchCriteria copy = new SearchCriteria();
+        BeanWrapper source = new BeanWrapperImpl(criteria);
+        BeanWrapper target = new BeanWrapperImpl(copy);
+        for (PropertyDescriptor descriptor : source.getPropertyDescriptors()) {
+            String name = descriptor.getName();
+            if (!target.isWritableProperty(name)) {
+                continue;
+            }
+            Object value = source.getPropertyValue(name);
+            if (value instanceof String text) {
+                value = text.isBlank() ? null : text.trim();
+            }
+            target.setPropertyValue(name, value);
+        }
+        return copy;
+    }
+    
+    private record Key(Region region, SearchCriteria criteria) {
+    }
+    
+    private record Entry(Page<?> page, long createdAt) {
+    }
+}
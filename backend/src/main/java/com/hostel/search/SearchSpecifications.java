@@ -0,0 +1,150 @@
+package com.hostel.search;
+
+import com.hostel.dto.SearchCriteria;
+import com.hostel.model.Complaint;
+import com.hostel.model.FeePayment;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Translates each non-null {@link SearchCriteria} field into a SQL predicate.
+ * Optional student/fee attributes keep the old in-memory semantics: a row whose
+ * attribute is null is not excluded by a filter on that attribute.
+ */
+public final class SearchSpecifications {
+    
+    private SearchSpecifications() {
+    }
+    
+    public static Specification<Student> students(SearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            
+            if (criteria.getName() != null) {
+                predicates.add(containsIgnoreCase(cb, root.get("name"), criteria.getName()));
+            }
+            if (criteria.getEmail() != null) {
+                predicates.add(containsIgnoreCase(cb, root.get("email"), criteria.getEmail()));
+            }
+            if (criteria.getPhone() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("phoneNumber")),
+                        contains(cb, root.get("phoneNumber"), criteria.getPhone())));
+            }
+            if (criteria.getRoomNumber() != null) {
+                predicates.add(cb.equal(root.get("roomNumber"), criteria.getRoomNumber()));
+            }
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (criteria.getCourse() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("course")),
+                        containsIgnoreCase(cb, root.get("course"), criteria.getCourse())));
+            }
+            if (criteria.getYear() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("yearOfStudy")),
+                        cb.equal(root.get("yearOfStudy"), criteria.getYear())));
+            }
+            if (criteria.getSearchTerm() != null) {
+                predicates.add(cb.or(
+                        containsIgnoreCase(cb, root.get("name"), criteria.getSearchTerm()),
+                        containsIgnoreCase(cb, root.get("email"), criteria.getSearchTerm()),
+                        contains(cb, root.get("phoneNumber"), criteria.getSearchTerm())));
+            }
+            
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    public static Specification<Room> rooms(SearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            
+            if (criteria.getRoomNumber() != null) {
+                predicates.add(contains(cb, root.get("roomNumber"), criteria.getRoomNumber()));
+            }
+            if (criteria.getRoomType() != null) {
+                predicates.add(cb.equal(root.get("roomType"), criteria.getRoomType()));
+            }
+            if (criteria.getRoomStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getRoomStatus()));
+            }
+            if (criteria.getFloor() != null) {
+                predicates.add(cb.equal(root.get("floor"), criteria.getFloor()));
+            }
+            if (criteria.getBlock() != null) {
+                predicates.add(cb.equal(root.get("block"), criteria.getBlock()));
+            }
+            
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    public static Specification<FeePayment> fees(SearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            
+            if (criteria.getFeeStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getFeeStatus()));
+            }
+            if (criteria.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("totalAmount"), criteria.getMinAmount()));
+            }
+            if (criteria.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("totalAmount"), criteria.getMaxAmount()));
+            }
+            if (criteria.getFromDate() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("paymentDate")),
+                        cb.greaterThanOrEqualTo(root.get("paymentDate"), criteria.getFromDate())));
+            }
+            if (criteria.getToDate() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("paymentDate")),
+                        cb.lessThanOrEqualTo(root.get("paymentDate"), criteria.getToDate())));
+            }
+            
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    public static Specification<Complaint> complaints(SearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            
+            if (criteria.getComplaintCategory() != null) {
+                predicates.add(cb.equal(root.get("category"), criteria.getComplaintCategory()));
+            }
+            if (criteria.getComplaintPriority() != null) {
+                predicates.add(cb.equal(root.get("priority"), criteria.getComplaintPriority()));
+            }
+            if (criteria.getComplaintStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getComplaintStatus()));
+            }
+            if (criteria.getSearchTerm() != null) {
+                predicates.add(cb.or(
+                        containsIgnoreCase(cb, root.get("title"), criteria.getSearchTerm()),
+                        containsIgnoreCase(cb, root.get("description"), criteria.getSearchTerm())));
+            }
+            
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    private static Predicate contains(CriteriaBuilder cb, Expression<String> field, String value) {
+        return cb.like(field, "%" + escapeLike(value) + "%", '\\');
+    }
+    
+    private static Predicate containsIgnoreCase(CriteriaBuilder cb, Expression<String> field, String value) {
+        return cb.like(cb.lower(field), "%" + escapeLike(value.toLowerCase(Locale.ROOT)) + "%", '\\');
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,108 @@
+package com.hostel.search;
+
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.model.Room;
+import com.hostel.model.Student;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Autocomplete over student names and room numbers. A student is reachable from the
+ * start of any word in their name, so "sha" completes "Rahul Sharma".
+ */
+@Component
+public class SuggestIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SuggestIndex.class);
+    
+    // Typo tolerance only kicks in once there is enough input for it to be meaningful
+    private static final int MIN_FUZZY_PREFIX = 3;
+    
+    private final StudentRepository studentRepository;
+    private final RoomRepository roomRepository;
+    private final PrefixTrie studentTrie;
+    private final PrefixTrie roomTrie;
+    
+    public SuggestIndex(StudentRepository studentRepository,
+                        RoomRepository roomRepository,
+                        @Value("${search.suggest.max-postings:500000}") int maxPostings) {
+        this.studentRepository = studentRepository;
+        this.roomRepository = roomRepository;
+        this.studentTrie = new PrefixTrie(maxPostings);
+        this.roomTrie = new PrefixTrie(maxPostings);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        studentTrie.clear();
+        roomTrie.clear();
+        
+        studentRepository.findAll().forEach(this::indexStudent);
+        roomRepository.findAll().forEach(this::indexRoom);
+        
+        logger.info("Suggest index built: {} students, {} rooms", studentTrie.size(), roomTrie.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Object entity = event.entity();
+        if (entity instanceof Student student) {
+            if (event.isDeleted()) {
+                studentTrie.remove(student.getId());
+            } else {
+                indexStudent(student);
+            }
+        } else if (entity instanceof Room room) {
+            if (event.isDeleted()) {
+                roomTrie.remove(room.getId());
+            } else {
+                indexRoom(room);
+            }
+        }
+    }
+    
+    public List<Suggestion> suggestStudents(String prefix, int limit) {
+        return studentTrie.complete(prefix, limit, maxEdits(prefix));
+    }
+    
+    public List<Suggestion> suggestRooms(String prefix, int limit) {
+        return roomTrie.complete(prefix, limit, maxEdits(prefix));
+    }
+    
+    private int maxEdits(String prefix) {
+        return PrefixTrie.normalize(prefix).length() >= MIN_FUZZY_PREFIX ? 1 : 0;
+    }
+    
+    private void indexStudent(Student student) {
+        String name = PrefixTrie.normalize(student.getName());
+        List<String> keys = new ArrayList<>();
+        if (!name.isEmpty()) {
+            keys.add(name);
+            for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+                keys.add(name.substring(i + 1));
+            }
+        }
+        if (!studentTrie.put(student.getId(), student.getName(), keys)) {
+            logger.warn("Suggest index is full, student {} not indexed", student.getId());
+        }
+    }
+    
+    private void indexRoom(Room room) {
+        String roomNumber = PrefixTrie.normalize(room.getRoomNumber());
+        List<String> keys = roomNumber.isEmpty() ? List.of() : List.of(roomNumber);
+        if (!roomTrie.put(room.getId(), room.getRoomNumber(), keys)) {
+            logger.warn("Suggest index is full, room {} not indexed", room.getId());
+        }
+    }
+}
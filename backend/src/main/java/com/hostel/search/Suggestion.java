@@ -0,0 +1,4 @@
+package com.hostel.search;
+
+public record Suggestion(long id, String label, int edits) {
+}
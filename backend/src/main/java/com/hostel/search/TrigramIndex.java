@@ -0,0 +1,220 @@
+package com.hostel.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram to posting-list index using pg_trgm style padding ("  w", " wo", ..., "rd ").
+ * A document's score is the fraction of query trigrams it contains, so partial and
+ * misspelled input still ranks the intended row first. Documents are addressed by dense
+ * int ordinals so scoring is a single counting pass over int arrays.
+ */
+public class TrigramIndex {
+    
+    private final Map<String, OrdinalList> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<Integer, String[]> documentTrigrams = new HashMap<>();
+    private long[] ordinalIds = new long[16];
+    private int[] ordinalSizes = new int[16];
+    private int nextOrdinal;
+    // Ordinals of removed documents, handed out again before new ones
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public void index(long id, String... fields) {
+        Set<String> trigrams = new HashSet<>();
+        for (String field : fields) {
+            trigrams.addAll(trigrams(field));
+        }
+        
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinals.computeIfAbsent(id, this::allocateOrdinal);
+            removeInternal(ordinal);
+            for (String trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new OrdinalList()).add(ordinal);
+            }
+            documentTrigrams.put(ordinal, trigrams.toArray(new String[0]));
+            ordinalSizes[ordinal] = trigrams.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                removeInternal(ordinal);
+                if (freeCount == freeOrdinals.length) {
+                    freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+                }
+                freeOrdinals[freeCount++] = ordinal;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinals.clear();
+            documentTrigrams.clear();
+            ordinalIds = new long[16];
+            ordinalSizes = new int[16];
+            nextOrdinal = 0;
+            freeOrdinals = new int[16];
+            freeCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTrigrams.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public List<ScoredId> search(String query, double threshold, int limit) {
+        Set<String> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int queryCount = queryTrigrams.size();
+        int minShared = Math.max(1, (int) Math.ceil(threshold * queryCount));
+        
+        // Min-heap of the best candidates seen so far, worst at the head
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[nextOrdinal];
+            int[] touched = new int[64];
+            int touchedCount = 0;
+            for (String trigram : queryTrigrams) {
+                OrdinalList list = postings.get(trigram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = list.ordinals[i];
+                    if (counts[ordinal]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = ordinal;
+                    }
+                }
+            }
+            
+            for (int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                int shared = counts[ordinal];
+                if (shared < minShared) {
+                    continue;
+                }
+                // Ties on coverage go to the closer whole-string match (trigram Jaccard similarity)
+                double score = (double) shared / queryCount;
+                double similarity = (double) shared / (queryCount + ordinalSizes[ordinal] - shared);
+                top.offer(new Candidate(ordinalIds[ordinal], score, similarity));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        List<Candidate> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        List<ScoredId> results = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            results.add(new ScoredId(candidate.id(), candidate.score()));
+        }
+        return results;
+    }
+    
+    private static final Comparator<Candidate> RANKING = Comparator.comparingDouble(Candidate::score).reversed()
+            .thenComparing(Comparator.comparingDouble(Candidate::similarity).reversed())
+            .thenComparingLong(Candidate::id);
+    
+    private int allocateOrdinal(long id) {
+        if (freeCount > 0) {
+            int ordinal = freeOrdinals[--freeCount];
+            ordinalIds[ordinal] = id;
+            return ordinal;
+        }
+        if (nextOrdinal == ordinalIds.length) {
+            ordinalIds = Arrays.copyOf(ordinalIds, nextOrdinal * 2);
+            ordinalSizes = Arrays.copyOf(ordinalSizes, nextOrdinal * 2);
+        }
+        ordinalIds[nextOrdinal] = id;
+        return nextOrdinal++;
+    }
+    
+    private void removeInternal(int ordinal) {
+        String[] previous = documentTrigrams.remove(ordinal);
+        ordinalSizes[ordinal] = 0;
+        if (previous == null) {
+            return;
+        }
+        for (String trigram : previous) {
+            OrdinalList list = postings.get(trigram);
+            if (list != null && list.remove(ordinal) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+    
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : InvertedIndex.tokenize(text)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+    
+    private record Candidate(long id, double score, double similarity) {
+    }
+    
+    private static final class OrdinalList {
+        private int[] ordinals = new int[4];
+        private int size;
+        
+        void add(int ordinal) {
+            int pos = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            System.arraycopy(ordinals, pos, ordinals, pos + 1, size - pos);
+            ordinals[pos] = ordinal;
+            size++;
+        }
+        
+        boolean remove(int ordinal) {
+            int pos = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ordinals, pos + 1, ordinals, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
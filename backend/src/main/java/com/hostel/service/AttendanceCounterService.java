@@ -0,0 +1,224 @@
+package com.hostel.service;
+
+import com.hostel.model.Attendance;
+import com.hostel.model.AttendanceMonth;
+import com.hostel.model.AttendanceSummary;
+import com.hostel.repository.AttendanceMonthRepository;
+import com.hostel.repository.AttendanceSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Keeps per-student attendance counters, overall and per calendar month, in step with
+ * attendance writes. Writers pass each row's mark before and after their change and the
+ * difference is upserted into the counter rows, as with the fee ledger. A rebuild job
+ * recomputes the counters from the attendance rows and repairs any drift.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttendanceCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceCounterService.class);
+    
+    private static final List<String> COUNTERS = List.of("present_days", "absent_days", "late_days", "on_leave_days");
+    private static final CounterTables.Table SUMMARIES = new CounterTables.Table("attendance_summaries",
+            List.of("student_id"), COUNTERS);
+    private static final CounterTables.Table MONTHS = new CounterTables.Table("attendance_months",
+            List.of("student_id", "month_start"), COUNTERS);
+    
+    private static final String COUNT_COLUMNS =
+            "SUM(CASE WHEN status = 'PRESENT' THEN 1 ELSE 0 END) AS present_days, " +
+            "SUM(CASE WHEN status = 'ABSENT' THEN 1 ELSE 0 END) AS absent_days, " +
+            "SUM(CASE WHEN status = 'LATE' THEN 1 ELSE 0 END) AS late_days, " +
+            "SUM(CASE WHEN status = 'ON_LEAVE' THEN 1 ELSE 0 END) AS on_leave_days ";
+    
+    private static final String EXPECTED_SUMMARIES_SQL =
+            "SELECT student_id, " + COUNT_COLUMNS +
+            "FROM attendance WHERE status IN ('PRESENT', 'ABSENT', 'LATE', 'ON_LEAVE') GROUP BY student_id";
+    
+    private static final String EXPECTED_MONTHS_SQL =
+            "SELECT student_id, month_start, " + COUNT_COLUMNS +
+            "FROM (SELECT student_id, CAST(DATE_TRUNC('month', date) AS DATE) AS month_start, status FROM attendance " +
+            "WHERE status IN ('PRESENT', 'ABSENT', 'LATE', 'ON_LEAVE')) a GROUP BY student_id, month_start";
+    
+    public record Counts(long present, long absent, long late, long onLeave) {
+        static final Counts NONE = new Counts(0, 0, 0, 0);
+    
+        Counts plus(Counts other) {
+            return new Counts(present + other.present, absent + other.absent, late + other.late, onLeave + other.onLeave);
+        }
+    
+        Counts minus(Counts other) {
+            return new Counts(present - other.present, absent - other.absent, late - other.late, onLeave - other.onLeave);
+        }
+    
+        boolean isZero() {
+            return present == 0 && absent == 0 && late == 0 && onLeave == 0;
+        }
+    
+        /**
+         * Present days as a whole percentage of present and absent days.
+         */
+        public long percentage() {
+            long total = present + absent;
+            return total == 0 ? 0L : (present * 100) / total;
+        }
+    }
+    
+    /**
+     * One student's attendance status on one day, as far as the counters are concerned.
+     */
+    public record Mark(long studentId, LocalDate date, String status) {
+        public static Mark of(Attendance attendance) {
+            return attendance == null ? null
+                    : new Mark(attendance.getStudentId(), attendance.getDate(), attendance.getStatus());
+        }
+    }
+    
+    public record MonthKey(long studentId, LocalDate monthStart) {}
+    
+    private final AttendanceSummaryRepository attendanceSummaryRepository;
+    private final AttendanceMonthRepository attendanceMonthRepository;
+    private final CounterTables counterTables;
+    
+    public static Counts countsOf(String status) {
+        if (status == null) {
+            return Counts.NONE;
+        }
+        return switch (status) {
+            case "PRESENT" -> new Counts(1, 0, 0, 0);
+            case "ABSENT" -> new Counts(0, 1, 0, 0);
+            case "LATE" -> new Counts(0, 0, 1, 0);
+            case "ON_LEAVE" -> new Counts(0, 0, 0, 1);
+            default -> Counts.NONE;
+        };
+    }
+    
+    /**
+     * Adds the change of one attendance row from {@code before} to {@code after} to a map
+     * of deltas for {@link #applyAll}. Either side may be null for an insert or delete.
+     */
+    public static void addChange(Map<MonthKey, Counts> deltas, Mark before, Mark after) {
+        if (before != null) {
+            deltas.merge(monthOf(before), Counts.NONE.minus(countsOf(before.status())), Counts::plus);
+        }
+        if (after != null) {
+            deltas.merge(monthOf(after), countsOf(after.status()), Counts::plus);
+        }
+    }
+    
+    private static MonthKey monthOf(Mark mark) {
+        return new MonthKey(mark.studentId(), mark.date().withDayOfMonth(1));
+    }
+    
+    // ============ MAINTENANCE ============
+    
+    /**
+     * Applies the change of one attendance row. Must run inside the transaction that
+     * writes the row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Mark before, Mark after) {
+        Map<MonthKey, Counts> deltas = new HashMap<>();
+        addChange(deltas, before, after);
+        applyAll(deltas);
+    }
+    
+    /**
+     * Adds per-month deltas and their per-student sums in JDBC batches, inserting counter
+     * rows that do not exist yet.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAll(Map<MonthKey, Counts> deltas) {
+        Map<Long, Counts> byStudent = new TreeMap<>();
+        List<Map.Entry<MonthKey, Counts>> months = new ArrayList<>();
+        for (Map.Entry<MonthKey, Counts> entry : deltas.entrySet()) {
+            if (!entry.getValue().isZero()) {
+                months.add(entry);
+                byStudent.merge(entry.getKey().studentId(), entry.getValue(), Counts::plus);
+            }
+        }
+        // Key order, so concurrent writers lock shared rows in the same order
+        months.sort(Map.Entry.comparingByKey(Comparator.comparingLong(MonthKey::studentId).thenComparing(MonthKey::monthStart)));
+        List<Map.Entry<Long, Counts>> students = byStudent.entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .toList();
+    
+        counterTables.add(MONTHS, months, (ps, entry) -> {
+            ps.setLong(1, entry.getKey().studentId());
+            ps.setObject(2, entry.getKey().monthStart());
+            ps.setLong(3, entry.getValue().present());
+            ps.setLong(4, entry.getValue().absent());
+            ps.setLong(5, entry.getValue().late());
+            ps.setLong(6, entry.getValue().onLeave());
+        });
+        counterTables.add(SUMMARIES, students, (ps, entry) -> {
+            ps.setLong(1, entry.getKey());
+            ps.setLong(2, entry.getValue().present());
+            ps.setLong(3, entry.getValue().absent());
+            ps.setLong(4, entry.getValue().late());
+            ps.setLong(5, entry.getValue().onLeave());
+        });
+    }
+    
+    // ============ QUERIES ============
+    
+    public Counts getCounts(Long studentId) {
+        return attendanceSummaryRepository.findById(studentId)
+                .map(AttendanceCounterService::countsOf)
+                .orElse(Counts.NONE);
+    }
+    
+    /**
+     * Counts over the calendar months from {@code from} to {@code to}, inclusive.
+     */
+    public Counts getCounts(Long studentId, YearMonth from, YearMonth to) {
+        Counts counts = Counts.NONE;
+        for (AttendanceMonth month : attendanceMonthRepository.findByStudentIdAndMonthStartBetween(
+                studentId, from.atDay(1), to.atDay(1))) {
+            counts = counts.plus(countsOf(month));
+        }
+        return counts;
+    }
+    
+    // ============ REBUILD ============
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+    
+    /**
+     * Recomputes every counter row from the attendance rows and corrects the rows that
+     * differ in set-based statements. Returns the number of rows corrected.
+     */
+    @Scheduled(cron = "${attendance.counters.rebuild-cron:0 0 3 * * *}")
+    @Transactional
+    public int rebuild() {
+        int corrected = counterTables.rebuild(MONTHS, EXPECTED_MONTHS_SQL)
+                + counterTables.rebuild(SUMMARIES, EXPECTED_SUMMARIES_SQL);
+        if (corrected > 0) {
+            logger.info("Attendance counters rebuilt: {} rows corrected", corrected);
+        }
+        return corrected;
+    }
+    
+    private static Counts countsOf(AttendanceMonth month) {
+        return new Counts(month.getPresentDays(), month.getAbsentDays(), month.getLateDays(), month.getOnLeaveDays());
+    }
+    
+    private static Counts countsOf(AttendanceSummary summary) {
+        return new Counts(summary.getPresentDays(), summary.getAbsentDays(), summary.getLateDays(), summary.getOnLeaveDays());
+    }
+}
@@ -1,17 +1,21 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.Attendance;
 import com.hostel.model.Student;
 import com.hostel.repository.AttendanceRepository;
 import com.hostel.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +23,7 @@ public class AttendanceService {
     
     private final AttendanceRepository attendanceRepository;
     private final StudentRepository studentRepository;
+    private final AttendanceCounterService attendanceCounterService;
     
     @Transactional
     public Attendance markAttendance(Attendance attendance) {
@@ -33,7 +38,15 @@ public class AttendanceService {
                     throw new IllegalStateException("Attendance already marked for this date");
                 });
         
-        return attendanceRepository.save(attendance);
+        Attendance saved;
+        try {
+            // Flushed here so the unique (student_id, date) index catches a concurrent mark
+            saved = attendanceRepository.saveAndFlush(attendance);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Attendance already marked for this date");
+        }
+        attendanceCounterService.apply(null, AttendanceCounterService.Mark.of(saved));
+        return saved;
     }
     
     @Transactional
@@ -41,20 +54,29 @@ public class AttendanceService {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
         
-        Attendance attendance = new Attendance();
+        // One row per student and date; a roll call may already have created it
+        Optional<Attendance> existing = attendanceRepository.findByStudentIdAndDate(studentId, date);
+        AttendanceCounterService.Mark before = existing.map(AttendanceCounterService.Mark::of).orElse(null);
+        Attendance attendance = existing.orElseGet(Attendance::new);
         attendance.setStudentId(studentId);
         attendance.setStudentName(student.getName());
         attendance.setDate(date);
         attendance.setCheckInTime(LocalTime.now());
         attendance.setStatus("PRESENT");
         
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        attendanceCounterService.apply(before, AttendanceCounterService.Mark.of(saved));
+        return saved;
     }
     
     public List<Attendance> getAllAttendance() {
         return attendanceRepository.findAll();
     }
     
+    public KeysetPage<Attendance> getAttendancePage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, attendanceRepository::findByIdGreaterThanOrderByIdAsc, Attendance::getId);
+    }
+    
     public Attendance getAttendanceById(Long id) {
         return attendanceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Attendance not found with id: " + id));
@@ -69,17 +91,34 @@ public class AttendanceService {
     }
     
     public Long getAttendancePercentage(Long studentId) {
-        Long presentDays = attendanceRepository.countPresentDays(studentId);
-        Long absentDays = attendanceRepository.countAbsentDays(studentId);
-        Long totalDays = presentDays + absentDays;
-        
-        if (totalDays == 0) return 0L;
-        return (presentDays * 100) / totalDays;
+        return attendanceCounterService.getCounts(studentId).percentage();
+    }
+    
+    /**
+     * Attendance percentage over the calendar months spanned by a term window.
+     */
+    public Long getAttendancePercentage(Long studentId, LocalDate from, LocalDate to) {
+        return getAttendanceCounts(studentId, from, to).percentage();
+    }
+    
+    /**
+     * Attendance counts over the whole history, or over the calendar months from
+     * {@code from} to {@code to} when both are given.
+     */
+    public AttendanceCounterService.Counts getAttendanceCounts(Long studentId, LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            return attendanceCounterService.getCounts(studentId);
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return attendanceCounterService.getCounts(studentId, YearMonth.from(from), YearMonth.from(to));
     }
     
     @Transactional
     public void deleteAttendance(Long id) {
         Attendance attendance = getAttendanceById(id);
         attendanceRepository.delete(attendance);
+        attendanceCounterService.apply(AttendanceCounterService.Mark.of(attendance), null);
     }
 }
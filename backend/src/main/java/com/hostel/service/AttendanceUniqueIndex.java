@@ -0,0 +1,53 @@
+package com.hostel.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the unique (student_id, date) index on attendance. Hibernate ddl-auto only logs
+ * a failed index creation, and databases from before the one-row-per-day rule can hold
+ * duplicate rows, so startup stops and lists the duplicates instead. Which row of a
+ * duplicate to keep, or how to merge their check-in times and remarks, is left to the
+ * operator. Runs once the schema is up and before requests are served.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class AttendanceUniqueIndex {
+    
+    private static final int MAX_LISTED_DUPLICATES = 20;
+    
+    private static final String DUPLICATES_SQL =
+            "SELECT student_id, date, COUNT(*) AS copies FROM attendance " +
+            "GROUP BY student_id, date HAVING COUNT(*) > 1 ORDER BY student_id, date";
+    
+    private static final String CREATE_INDEX_SQL =
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_attendance_student_date ON attendance (student_id, date)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public AttendanceUniqueIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @PostConstruct
+    public void create() {
+        List<Map<String, Object>> duplicates = jdbcTemplate.queryForList(DUPLICATES_SQL);
+        if (!duplicates.isEmpty()) {
+            String listed = duplicates.stream()
+                    .limit(MAX_LISTED_DUPLICATES)
+                    .map(row -> "student " + row.get("student_id") + " on " + row.get("date") + " (" + row.get("copies") + " rows)")
+                    .collect(Collectors.joining(", "));
+            throw new IllegalStateException("Attendance has " + duplicates.size() + " (student_id, date) pairs with more " +
+                    "than one row, so the unique index idx_attendance_student_date cannot be created. Merge or delete " +
+                    "the extra rows and restart. Duplicates: " + listed +
+                    (duplicates.size() > MAX_LISTED_DUPLICATES ? ", ..." : ""));
+        }
+        jdbcTemplate.execute(CREATE_INDEX_SQL);
+    }
+}
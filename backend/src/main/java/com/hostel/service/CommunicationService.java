@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.Announcement;
 import com.hostel.model.Message;
@@ -31,6 +32,10 @@ public class CommunicationService {
         return messageRepository.findAll();
     }
     
+    public KeysetPage<Message> getMessagesPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, messageRepository::findByIdGreaterThanOrderByIdAsc, Message::getId);
+    }
+    
     public Message getMessageById(Long id) {
         return messageRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Message not found with id: " + id));
@@ -74,6 +79,10 @@ public class CommunicationService {
         return announcementRepository.findAll();
     }
     
+    public KeysetPage<Announcement> getAnnouncementsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, announcementRepository::findByIdGreaterThanOrderByIdAsc, Announcement::getId);
+    }
+    
     public List<Announcement> getActiveAnnouncements() {
         return announcementRepository.findByIsActive(true);
     }
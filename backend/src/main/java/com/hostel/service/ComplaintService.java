@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.Complaint;
 import com.hostel.model.Student;
@@ -34,6 +35,10 @@ public class ComplaintService {
         return complaintRepository.findAll();
     }
     
+    public KeysetPage<Complaint> getComplaintsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, complaintRepository::findByIdGreaterThanOrderByIdAsc, Complaint::getId);
+    }
+    
     public Complaint getComplaintById(Long id) {
         return complaintRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Complaint not found with id: " + id));
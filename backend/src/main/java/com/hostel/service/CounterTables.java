@@ -0,0 +1,148 @@
+package com.hostel.service;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes counter tables: tables whose rows are identified by key columns and whose
+ * counter columns only change by adding deltas, such as the fee ledger, the fee rollups
+ * and the attendance counters. A delta is upserted with one statement, INSERT ... ON
+ * CONFLICT DO UPDATE on PostgreSQL and MERGE elsewhere, so two writers creating the same
+ * row both succeed. A rebuild adds the difference between the expected and the stored
+ * values as one more delta, so writes that commit while it runs are kept.
+ */
+@Component
+public class CounterTables {
+    
+    private static final int JDBC_BATCH_SIZE = 500;
+    // Differences below this are rounding, not drift
+    private static final double TOLERANCE = 0.005;
+    
+    /**
+     * A counter table and its columns. Upserts bind the key columns first, then the
+     * counter columns, in the order given here. Every table has an updated_at column.
+     */
+    public record Table(String name, List<String> keys, List<String> counters) {}
+    
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+    
+    public CounterTables(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Adds one delta per row in JDBC batches, creating rows that do not exist yet. Callers
+     * pass rows in key order so concurrent writers lock shared rows in the same order.
+     */
+    public <T> void add(Table table, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(isPostgres() ? upsertSql(table) : mergeSql(table), rows, JDBC_BATCH_SIZE, setter);
+    }
+    
+    /**
+     * Brings every row to the values of {@code expectedSql}, a query returning one row per
+     * key with the key and counter columns under their own names. Rows the query does not
+     * return are brought to zero. Returns the number of rows corrected.
+     */
+    public int rebuild(Table table, String expectedSql) {
+        // Missing rows first, so the correction below also covers rows a writer creates meanwhile
+        int inserted = jdbcTemplate.update(isPostgres() ? insertMissingSql(table, expectedSql) : mergeMissingSql(table, expectedSql));
+        int updated = jdbcTemplate.update(isPostgres() ? correctSql(table, expectedSql) : mergeCorrectionSql(table, expectedSql));
+        return inserted + updated;
+    }
+    
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+    
+    // ============ POSTGRESQL ============
+    
+    private static String upsertSql(Table table) {
+        return "INSERT INTO " + table.name() + " (" + columns(table, "") + ", updated_at) VALUES (" +
+                join(Stream.concat(table.keys().stream(), table.counters().stream()), column -> "?") + ", LOCALTIMESTAMP) " +
+                onConflictAdd(table);
+    }
+    
+    private static String insertMissingSql(Table table, String expectedSql) {
+        return "INSERT INTO " + table.name() + " (" + columns(table, "") + ", updated_at) " +
+                "SELECT " + columns(table, "e.") + ", LOCALTIMESTAMP FROM (" + expectedSql + ") e " +
+                "WHERE NOT EXISTS (SELECT 1 FROM " + table.name() + " r WHERE " + keysMatch(table, "r", "e") + ") " +
+                onConflictAdd(table);
+    }
+    
+    private static String onConflictAdd(Table table) {
+        return "ON CONFLICT (" + String.join(", ", table.keys()) + ") DO UPDATE SET " +
+                join(table.counters().stream(), column -> column + " = " + table.name() + "." + column + " + EXCLUDED." + column) +
+                ", updated_at = EXCLUDED.updated_at";
+    }
+    
+    // The differences are read from one snapshot and added to the latest row versions
+    private static String correctSql(Table table, String expectedSql) {
+        return "UPDATE " + table.name() + " SET " + addDifferences(table) + " FROM " + differences(table, expectedSql) + " " +
+                "WHERE " + keysMatch(table, table.name(), "d") + " AND (" + differs(table) + ")";
+    }
+    
+    // ============ OTHER DATABASES ============
+    
+    private static String mergeSql(Table table) {
+        return "MERGE INTO " + table.name() + " USING (VALUES (" +
+                join(Stream.concat(table.keys().stream(), table.counters().stream()), column -> "?") + ")) " +
+                "d(" + columns(table, "") + ") ON " + keysMatch(table, table.name(), "d") + " " +
+                "WHEN MATCHED THEN UPDATE SET " + addDifferences(table) + " " +
+                "WHEN NOT MATCHED THEN INSERT (" + columns(table, "") + ", updated_at) VALUES (" + columns(table, "d.") + ", LOCALTIMESTAMP)";
+    }
+    
+    private static String mergeMissingSql(Table table, String expectedSql) {
+        return "MERGE INTO " + table.name() + " USING (" + expectedSql + ") e ON " + keysMatch(table, table.name(), "e") + " " +
+                "WHEN NOT MATCHED THEN INSERT (" + columns(table, "") + ", updated_at) VALUES (" + columns(table, "e.") + ", LOCALTIMESTAMP)";
+    }
+    
+    private static String mergeCorrectionSql(Table table, String expectedSql) {
+        return "MERGE INTO " + table.name() + " USING " + differences(table, expectedSql) + " ON " + keysMatch(table, table.name(), "d") + " " +
+                "WHEN MATCHED AND (" + differs(table) + ") THEN UPDATE SET " + addDifferences(table);
+    }
+    
+    // ============ FRAGMENTS ============
+    
+    // Expected minus stored value of every row, as relation d
+    private static String differences(Table table, String expectedSql) {
+        return "(SELECT " + join(table.keys().stream(), column -> "r." + column) + ", " +
+                join(table.counters().stream(), column -> "COALESCE(e." + column + ", 0) - r." + column + " AS " + column) + " " +
+                "FROM " + table.name() + " r LEFT JOIN (" + expectedSql + ") e ON " + keysMatch(table, "r", "e") + ") d";
+    }
+    
+    private static String addDifferences(Table table) {
+        return join(table.counters().stream(), column -> column + " = " + table.name() + "." + column + " + d." + column) +
+                ", updated_at = LOCALTIMESTAMP";
+    }
+    
+    private static String differs(Table table) {
+        return String.join(" OR ", table.counters().stream().map(column -> "ABS(d." + column + ") >= " + TOLERANCE).toList());
+    }
+    
+    private static String keysMatch(Table table, String left, String right) {
+        return String.join(" AND ", table.keys().stream().map(column -> left + "." + column + " = " + right + "." + column).toList());
+    }
+    
+    private static String columns(Table table, String prefix) {
+        return join(Stream.concat(table.keys().stream(), table.counters().stream()), column -> prefix + column);
+    }
+    
+    private static String join(Stream<String> columns, Function<String, String> mapper) {
+        return columns.map(mapper).collect(Collectors.joining(", "));
+    }
+}
@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.Document;
 import com.hostel.model.Student;
@@ -40,6 +41,10 @@ public class DocumentService {
         return documentRepository.findAll();
     }
     
+    public KeysetPage<Document> getDocumentsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, documentRepository::findByIdGreaterThanOrderByIdAsc, Document::getId);
+    }
+    
     public Document getDocumentById(Long id) {
         return documentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found with id: " + id));
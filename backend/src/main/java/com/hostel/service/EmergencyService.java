@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.EmergencyAlert;
 import com.hostel.model.EmergencyContact;
@@ -58,6 +59,10 @@ public class EmergencyService {
         return emergencyAlertRepository.findAll();
     }
     
+    public KeysetPage<EmergencyAlert> getAlertsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, emergencyAlertRepository::findByIdGreaterThanOrderByIdAsc, EmergencyAlert::getId);
+    }
+    
     public EmergencyAlert getAlertById(Long id) {
         return emergencyAlertRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Emergency alert not found with id: " + id));
@@ -115,6 +120,10 @@ public class EmergencyService {
         return emergencyContactRepository.findAll();
     }
     
+    public KeysetPage<EmergencyContact> getEmergencyContactsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, emergencyContactRepository::findByIdGreaterThanOrderByIdAsc, EmergencyContact::getId);
+    }
+    
     public EmergencyContact getEmergencyContactById(Long id) {
         return emergencyContactRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Emergency contact not found with id: " + id));
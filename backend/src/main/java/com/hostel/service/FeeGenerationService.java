@@ -0,0 +1,173 @@
+package com.hostel.service;
+
+import com.hostel.dto.FeeGenerationRequest;
+import com.hostel.dto.FeeGenerationResult;
+import com.hostel.exception.ResourceNotFoundException;
+import com.hostel.model.FeeType;
+import com.hostel.repository.FeePaymentRepository;
+import com.hostel.repository.FeeTypeRepository;
+import com.hostel.repository.StudentRepository;
+import com.hostel.search.SearchResultCache;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Generates a term's fee payments for every active student in one request. Students are
+ * read in keyset pages of id and name only, fee types are read once, and payments go out
+ * as JDBC batch inserts. Payments that already exist for the term are skipped, so a
+ * re-run only fills in what is missing, such as students who became active since. The
+ * run holds the term's {@link FeeTermLock}, so no other run or single payment for the
+ * term can commit between the check and the inserts.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeeGenerationService {
+    private static final Logger logger = LoggerFactory.getLogger(FeeGenerationService.class);
+    
+    private static final int STUDENT_PAGE_SIZE = 1000;
+    private static final int JDBC_BATCH_SIZE = 500;
+    private static final int DEFAULT_DUE_DAYS = 15;
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO fee_payments (student_id, student_name, fee_type_id, fee_type_name, amount, late_fee, " +
+            "total_amount, due_date, status, semester, academic_year, remarks, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final StudentRepository studentRepository;
+    private final FeeTypeRepository feeTypeRepository;
+    private final FeePaymentRepository feePaymentRepository;
+    private final FeeLedgerService feeLedgerService;
+    private final FeeRollupService feeRollupService;
+    private final LateFeeService lateFeeService;
+    private final SearchResultCache searchResultCache;
+    private final FeeTermLock feeTermLock;
+    private final JdbcTemplate jdbcTemplate;
+    
+    // What every student owes for one fee type this term
+    private record Charge(FeeType feeType, double lateFee, String status, FeeLedgerService.Contribution contribution,
+                          FeeRollupService.Bucket bucket, FeeRollupService.Totals totals) {}
+    
+    private record PendingPayment(long studentId, String studentName, Charge charge) {}
+    
+    @Transactional
+    public FeeGenerationResult generateTermFees(FeeGenerationRequest request) {
+        // Held until commit; a concurrent run for the term waits here and then skips this run's rows
+        feeTermLock.lock(request.getSemester(), request.getAcademicYear());
+        return generate(request);
+    }
+    
+    private FeeGenerationResult generate(FeeGenerationRequest request) {
+        long started = System.currentTimeMillis();
+        List<FeeType> feeTypes = resolveFeeTypes(request.getFeeTypeIds());
+        LocalDate today = LocalDate.now();
+        LocalDate dueDate = request.getDueDate() != null ? request.getDueDate() : today.plusDays(DEFAULT_DUE_DAYS);
+    
+        // Student and fee type pairs already billed for this term
+        Map<Long, Set<Long>> existing = new HashMap<>();
+        for (Object[] row : feePaymentRepository.findStudentAndFeeTypeByTerm(request.getSemester(), request.getAcademicYear())) {
+            existing.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        }
+    
+        FeeGenerationResult result = new FeeGenerationResult();
+        result.setSemester(request.getSemester());
+        result.setAcademicYear(request.getAcademicYear());
+        feeTypes.forEach(feeType -> result.getFeeTypes().add(feeType.getName()));
+        
+        List<Charge> charges = new ArrayList<>();
+        for (FeeType feeType : feeTypes) {
+            double lateFee = lateFeeService.lateFee(feeType, dueDate, today);
+            double total = feeType.getAmount() + lateFee;
+            FeeRollupService.Bucket bucket = new FeeRollupService.Bucket(dueDate, new FeeRollupService.Series(
+                    feeType.getId(), "", request.getSemester(), request.getAcademicYear()));
+            FeeRollupService.Totals totals = new FeeRollupService.Totals(0, 0, total, 1);
+            charges.add(lateFeeService.daysOverdue(feeType, dueDate, today) > 0
+                    ? new Charge(feeType, lateFee, "OVERDUE", new FeeLedgerService.Contribution(0, 0, total, lateFee), bucket, totals)
+                    : new Charge(feeType, lateFee, "PENDING", new FeeLedgerService.Contribution(0, total, 0, lateFee), bucket, totals));
+        }
+    
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, FeeLedgerService.Contribution> ledgerDeltas = new HashMap<>();
+        Map<FeeRollupService.Bucket, FeeRollupService.Totals> rollupDeltas = new HashMap<>();
+        long after = 0L;
+        while (true) {
+            List<Object[]> students = studentRepository.findIdAndNameByStatusAfter("ACTIVE", after, Limit.of(STUDENT_PAGE_SIZE));
+            if (students.isEmpty()) {
+                break;
+            }
+            List<PendingPayment> batch = new ArrayList<>();
+            for (Object[] student : students) {
+                long studentId = (Long) student[0];
+                Set<Long> billed = existing.getOrDefault(studentId, Set.of());
+                for (Charge charge : charges) {
+                    if (billed.contains(charge.feeType().getId())) {
+                        result.setAlreadyExisting(result.getAlreadyExisting() + 1);
+                    } else {
+                        batch.add(new PendingPayment(studentId, (String) student[1], charge));
+                        ledgerDeltas.merge(studentId, charge.contribution(), FeeLedgerService.Contribution::plus);
+                        rollupDeltas.merge(charge.bucket(), charge.totals(), FeeRollupService.Totals::plus);
+                    }
+                }
+            }
+            result.setActiveStudents(result.getActiveStudents() + students.size());
+            after = (Long) students.get(students.size() - 1)[0];
+    
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, JDBC_BATCH_SIZE, (ps, payment) -> {
+                FeeType feeType = payment.charge().feeType();
+                ps.setLong(1, payment.studentId());
+                ps.setString(2, payment.studentName());
+                ps.setLong(3, feeType.getId());
+                ps.setString(4, feeType.getName());
+                ps.setDouble(5, feeType.getAmount());
+                ps.setDouble(6, payment.charge().lateFee());
+                ps.setDouble(7, feeType.getAmount() + payment.charge().lateFee());
+                ps.setObject(8, dueDate);
+                ps.setString(9, payment.charge().status());
+                ps.setString(10, request.getSemester());
+                ps.setString(11, request.getAcademicYear());
+                ps.setString(12, request.getRemarks());
+                ps.setObject(13, now);
+                ps.setObject(14, now);
+            });
+            result.setCreated(result.getCreated() + batch.size());
+        }
+    
+        feeLedgerService.applyAll(ledgerDeltas);
+        feeRollupService.applyAll(rollupDeltas);
+        if (result.getCreated() > 0) {
+            searchResultCache.invalidate(SearchResultCache.Region.FEE);
+        }
+        result.setElapsedMs(System.currentTimeMillis() - started);
+        logger.info("Generated {} fee payments for {} {} ({} already existed) in {} ms", result.getCreated(),
+                request.getAcademicYear(), request.getSemester(), result.getAlreadyExisting(), result.getElapsedMs());
+        return result;
+    }
+    
+    private List<FeeType> resolveFeeTypes(List<Long> feeTypeIds) {
+        if (feeTypeIds == null || feeTypeIds.isEmpty()) {
+            List<FeeType> mandatory = feeTypeRepository.findByIsActive(true).stream()
+                    .filter(feeType -> Boolean.TRUE.equals(feeType.getIsMandatory()))
+                    .toList();
+            if (mandatory.isEmpty()) {
+                throw new IllegalStateException("No active mandatory fee types to generate");
+            }
+            return mandatory;
+        }
+        List<FeeType> feeTypes = feeTypeRepository.findAllById(new LinkedHashSet<>(feeTypeIds));
+        if (feeTypes.size() != new HashSet<>(feeTypeIds).size()) {
+            Set<Long> found = new HashSet<>();
+            feeTypes.forEach(feeType -> found.add(feeType.getId()));
+            Long missing = feeTypeIds.stream().filter(id -> !found.contains(id)).findFirst().orElse(null);
+            throw new ResourceNotFoundException("Fee type not found with id: " + missing);
+        }
+        return feeTypes;
+    }
+}
@@ -0,0 +1,136 @@
+package com.hostel.service;
+
+import com.hostel.model.FeeLedger;
+import com.hostel.model.FeePayment;
+import com.hostel.repository.FeeLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the per-student fee ledger in step with fee payments. Writers pass the payment's
+ * contribution before and after their change and the difference is upserted into the
+ * ledger row in one statement, so concurrent writers for the same student do not lose
+ * updates. A reconciliation job recomputes every row from the payments and repairs any
+ * drift, for example from payments written outside FeeService.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeeLedgerService {
+    private static final Logger logger = LoggerFactory.getLogger(FeeLedgerService.class);
+    
+    private static final CounterTables.Table LEDGERS = new CounterTables.Table("fee_ledgers",
+            List.of("student_id"), List.of("paid_amount", "pending_amount", "overdue_amount", "late_fees"));
+    
+    // Same amounts as contributionOf, summed in the database
+    private static final String EXPECTED_SQL =
+            "SELECT student_id, " +
+            "SUM(CASE WHEN status = 'PAID' THEN COALESCE(total_amount, 0) ELSE 0 END) AS paid_amount, " +
+            "SUM(CASE WHEN status = 'PENDING' THEN COALESCE(total_amount, 0) ELSE 0 END) AS pending_amount, " +
+            "SUM(CASE WHEN status = 'OVERDUE' THEN COALESCE(total_amount, 0) ELSE 0 END) AS overdue_amount, " +
+            "SUM(CASE WHEN COALESCE(status, '') <> 'CANCELLED' THEN COALESCE(late_fee, 0) ELSE 0 END) AS late_fees " +
+            "FROM fee_payments GROUP BY student_id";
+    
+    /**
+     * What one payment adds to its student's ledger.
+     */
+    public record Contribution(double paid, double pending, double overdue, double lateFees) {
+        static final Contribution NONE = new Contribution(0, 0, 0, 0);
+    
+        Contribution plus(Contribution other) {
+            return new Contribution(paid + other.paid, pending + other.pending,
+                    overdue + other.overdue, lateFees + other.lateFees);
+        }
+    
+        Contribution minus(Contribution other) {
+            return new Contribution(paid - other.paid, pending - other.pending,
+                    overdue - other.overdue, lateFees - other.lateFees);
+        }
+    
+        boolean isZero() {
+            return paid == 0 && pending == 0 && overdue == 0 && lateFees == 0;
+        }
+    }
+    
+    private final FeeLedgerRepository feeLedgerRepository;
+    private final CounterTables counterTables;
+    
+    public static Contribution contributionOf(FeePayment payment) {
+        if (payment == null || "CANCELLED".equals(payment.getStatus())) {
+            return Contribution.NONE;
+        }
+        double total = payment.getTotalAmount() == null ? 0 : payment.getTotalAmount();
+        double lateFee = payment.getLateFee() == null ? 0 : payment.getLateFee();
+        return switch (payment.getStatus() == null ? "" : payment.getStatus()) {
+            case "PAID" -> new Contribution(total, 0, 0, lateFee);
+            case "PENDING" -> new Contribution(0, total, 0, lateFee);
+            case "OVERDUE" -> new Contribution(0, 0, total, lateFee);
+            default -> new Contribution(0, 0, 0, lateFee);
+        };
+    }
+    
+    /**
+     * Applies the change of one student's payment from {@code before} to {@code after}.
+     * Must run inside the transaction that writes the payment.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Long studentId, Contribution before, Contribution after) {
+        applyAll(Map.of(studentId, after.minus(before)));
+    }
+    
+    /**
+     * Adds per-student deltas in JDBC batches, for bulk writers that insert payments
+     * directly. Students without a ledger row get one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAll(Map<Long, Contribution> deltas) {
+        List<Map.Entry<Long, Contribution>> entries = new TreeMap<>(deltas).entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .toList();
+        counterTables.add(LEDGERS, entries, (ps, entry) -> {
+            Contribution delta = entry.getValue();
+            ps.setLong(1, entry.getKey());
+            ps.setDouble(2, delta.paid());
+            ps.setDouble(3, delta.pending());
+            ps.setDouble(4, delta.overdue());
+            ps.setDouble(5, delta.lateFees());
+        });
+    }
+    
+    public FeeLedger getLedger(Long studentId) {
+        return feeLedgerRepository.findById(studentId)
+                .orElseGet(() -> new FeeLedger(studentId, 0.0, 0.0, 0.0, 0.0, null));
+    }
+    
+    // ============ RECONCILIATION ============
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+    
+    /**
+     * Recomputes every ledger row from the payments and corrects the rows that differ in
+     * set-based statements. Returns the number of rows corrected.
+     */
+    @Scheduled(cron = "${fees.ledger.reconcile-cron:0 30 2 * * *}")
+    @Transactional
+    public int reconcile() {
+        int corrected = counterTables.rebuild(LEDGERS, EXPECTED_SQL);
+        if (corrected > 0) {
+            logger.info("Fee ledger reconciled: {} rows corrected", corrected);
+        }
+        return corrected;
+    }
+}
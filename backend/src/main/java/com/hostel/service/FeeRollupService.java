@@ -0,0 +1,434 @@
+package com.hostel.service;
+
+import com.hostel.model.FeePayment;
+import com.hostel.model.FeeType;
+import com.hostel.repository.FeeTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Fee collection figures pre-aggregated per day, fee type, payment method and term.
+ * Writers pass each payment's share before and after their change and the difference is
+ * upserted into the fee_rollups rows in the same transaction, as with the fee ledger.
+ * Once committed, the touched days are re-read into an in-memory copy that keeps prefix
+ * sums per series, so the total over any date range is two binary searches per series
+ * whatever the number of payments. A reconciliation job rebuilds the rows from the
+ * payments.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeeRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(FeeRollupService.class);
+    
+    private static final int IN_CLAUSE_SIZE = 1000;
+    private static final Set<String> GROUP_BY = Set.of("feeType", "paymentMethod", "semester", "academicYear");
+    
+    private static final CounterTables.Table ROLLUPS = new CounterTables.Table("fee_rollups",
+            List.of("rollup_date", "fee_type_id", "payment_method", "semester", "academic_year"),
+            List.of("collected_amount", "collected_count", "outstanding_amount", "outstanding_count"));
+    
+    // Same bucketing as shareOf, evaluated in the database
+    private static final String EXPECTED_SQL =
+            "SELECT rollup_date, fee_type_id, payment_method, semester, academic_year, " +
+            "SUM(paid * amount) AS collected_amount, SUM(paid) AS collected_count, " +
+            "SUM((1 - paid) * amount) AS outstanding_amount, SUM(1 - paid) AS outstanding_count " +
+            "FROM (SELECT CASE WHEN status = 'PAID' THEN COALESCE(payment_date, due_date, CAST(created_at AS DATE)) " +
+            "ELSE COALESCE(due_date, CAST(created_at AS DATE)) END AS rollup_date, fee_type_id, " +
+            "CASE WHEN status = 'PAID' THEN COALESCE(payment_method, '') ELSE '' END AS payment_method, " +
+            "COALESCE(semester, '') AS semester, COALESCE(academic_year, '') AS academic_year, " +
+            "CASE WHEN status = 'PAID' THEN 1 ELSE 0 END AS paid, COALESCE(total_amount, 0) AS amount " +
+            "FROM fee_payments WHERE status IN ('PAID', 'PENDING', 'OVERDUE')) p " +
+            "GROUP BY rollup_date, fee_type_id, payment_method, semester, academic_year";
+    
+    private static final String SELECT_SQL =
+            "SELECT rollup_date, fee_type_id, payment_method, semester, academic_year, " +
+            "collected_amount, collected_count, outstanding_amount, outstanding_count FROM fee_rollups";
+    
+    /**
+     * Fee type, payment method and term: the unit that keeps its own prefix sums.
+     */
+    public record Series(long feeTypeId, String paymentMethod, String semester, String academicYear) {}
+    
+    /**
+     * Key of one rollup row.
+     */
+    public record Bucket(LocalDate day, Series series) {}
+    
+    public record Totals(double collectedAmount, long collectedCount, double outstandingAmount, long outstandingCount) {
+        static final Totals ZERO = new Totals(0, 0, 0, 0);
+    
+        Totals plus(Totals other) {
+            return new Totals(collectedAmount + other.collectedAmount, collectedCount + other.collectedCount,
+                    outstandingAmount + other.outstandingAmount, outstandingCount + other.outstandingCount);
+        }
+    
+        Totals minus(Totals other) {
+            return new Totals(collectedAmount - other.collectedAmount, collectedCount - other.collectedCount,
+                    outstandingAmount - other.outstandingAmount, outstandingCount - other.outstandingCount);
+        }
+    
+        boolean isZero() {
+            return collectedAmount == 0 && collectedCount == 0 && outstandingAmount == 0 && outstandingCount == 0;
+        }
+    }
+    
+    /**
+     * What one payment adds to the rollup: its totals in one bucket, or nothing.
+     */
+    public record Share(Bucket bucket, Totals totals) {
+        static final Share NONE = new Share(null, Totals.ZERO);
+    }
+    
+    // Key order of fee_rollups, in which writers lock rows
+    private static final Comparator<Bucket> BUCKET_ORDER = Comparator.comparing(Bucket::day)
+            .thenComparingLong(bucket -> bucket.series().feeTypeId())
+            .thenComparing(bucket -> bucket.series().paymentMethod())
+            .thenComparing(bucket -> bucket.series().semester())
+            .thenComparing(bucket -> bucket.series().academicYear());
+    
+    private final FeeTypeRepository feeTypeRepository;
+    private final CounterTables counterTables;
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final Map<Series, SeriesTotals> series = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes re-reads, so the copy never goes back to an older read of a day
+    private final Object reloadLock = new Object();
+    
+    // ============ SHARES ============
+    
+    public static Share shareOf(FeePayment payment) {
+        if (payment == null || payment.getStatus() == null) {
+            return Share.NONE;
+        }
+        return switch (payment.getStatus()) {
+            case "PAID" -> paidShareOf(payment, payment.getPaymentDate(), payment.getPaymentMethod());
+            case "PENDING", "OVERDUE" -> new Share(
+                    new Bucket(payment.getDueDate() != null ? payment.getDueDate() : createdDay(payment), seriesOf(payment, null)),
+                    new Totals(0, 0, amount(payment), 1));
+            default -> Share.NONE;
+        };
+    }
+    
+    /**
+     * Share of the payment once paid on the given day with the given method, for writers
+     * that mark payments paid without loading them into the persistence context.
+     */
+    public static Share paidShareOf(FeePayment payment, LocalDate paymentDate, String paymentMethod) {
+        LocalDate day = paymentDate != null ? paymentDate
+                : payment.getDueDate() != null ? payment.getDueDate() : createdDay(payment);
+        return new Share(new Bucket(day, seriesOf(payment, paymentMethod)), new Totals(amount(payment), 1, 0, 0));
+    }
+    
+    /**
+     * Adds the change of one payment from {@code before} to {@code after} to a map of
+     * deltas for {@link #applyAll}.
+     */
+    public static void addChange(Map<Bucket, Totals> deltas, Share before, Share after) {
+        if (before.bucket() != null) {
+            deltas.merge(before.bucket(), Totals.ZERO.minus(before.totals()), Totals::plus);
+        }
+        if (after.bucket() != null) {
+            deltas.merge(after.bucket(), after.totals(), Totals::plus);
+        }
+    }
+    
+    private static Series seriesOf(FeePayment payment, String paymentMethod) {
+        return new Series(payment.getFeeTypeId(), blank(paymentMethod), blank(payment.getSemester()), blank(payment.getAcademicYear()));
+    }
+    
+    private static LocalDate createdDay(FeePayment payment) {
+        return payment.getCreatedAt() != null ? payment.getCreatedAt().toLocalDate() : LocalDate.now();
+    }
+    
+    private static double amount(FeePayment payment) {
+        return payment.getTotalAmount() == null ? 0 : payment.getTotalAmount();
+    }
+    
+    private static String blank(String value) {
+        return value == null ? "" : value;
+    }
+    
+    // ============ MAINTENANCE ============
+    
+    /**
+     * Applies the change of one payment. Must run inside the transaction that writes it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Share before, Share after) {
+        Map<Bucket, Totals> deltas = new HashMap<>();
+        addChange(deltas, before, after);
+        applyAll(deltas);
+    }
+    
+    /**
+     * Adds per-bucket deltas in JDBC batches, inserting rows for new buckets. The touched
+     * days are re-read into the in-memory copy once the transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAll(Map<Bucket, Totals> deltas) {
+        List<Map.Entry<Bucket, Totals>> entries = deltas.entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .sorted(Map.Entry.comparingByKey(BUCKET_ORDER))
+                .toList();
+        if (entries.isEmpty()) {
+            return;
+        }
+        counterTables.add(ROLLUPS, entries, (ps, entry) -> {
+            Bucket bucket = entry.getKey();
+            Totals delta = entry.getValue();
+            ps.setObject(1, bucket.day());
+            ps.setLong(2, bucket.series().feeTypeId());
+            ps.setString(3, bucket.series().paymentMethod());
+            ps.setString(4, bucket.series().semester());
+            ps.setString(5, bucket.series().academicYear());
+            ps.setDouble(6, delta.collectedAmount());
+            ps.setLong(7, delta.collectedCount());
+            ps.setDouble(8, delta.outstandingAmount());
+            ps.setLong(9, delta.outstandingCount());
+        });
+    
+        Set<LocalDate> days = new TreeSet<>();
+        entries.forEach(entry -> days.add(entry.getKey().day()));
+        afterCommit(() -> reload(days));
+    }
+    
+    // ============ RECONCILIATION ============
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+    
+    /**
+     * Recomputes every rollup row from the payments, corrects the rows that differ in
+     * set-based statements and reloads the in-memory copy from the rows once committed.
+     * Returns the number of rows corrected.
+     */
+    @Scheduled(cron = "${fees.rollup.reconcile-cron:0 45 2 * * *}")
+    @Transactional
+    public int reconcile() {
+        int corrected = counterTables.rebuild(ROLLUPS, EXPECTED_SQL);
+        if (corrected > 0) {
+            logger.info("Fee rollups reconciled: {} rows corrected", corrected);
+        }
+        afterCommit(() -> reload(null));
+        return corrected;
+    }
+    
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    // ============ IN-MEMORY COPY ============
+    
+    /**
+     * Re-reads the given days, or every day when null, from fee_rollups and replaces them
+     * in the in-memory copy. Rows are only ever added to by committed writers, so a later
+     * read is never behind an earlier one and reads are applied in the order they ran.
+     */
+    private void reload(Set<LocalDate> days) {
+        synchronized (reloadLock) {
+            Map<Bucket, Totals> rows = new HashMap<>();
+            RowCallbackHandler handler = rs -> rows.put(bucketOf(rs), new Totals(rs.getDouble(6), rs.getLong(7),
+                    rs.getDouble(8), rs.getLong(9)));
+            if (days == null) {
+                jdbcTemplate.query(SELECT_SQL, handler);
+            } else {
+                List<LocalDate> list = new ArrayList<>(days);
+                for (int from = 0; from < list.size(); from += IN_CLAUSE_SIZE) {
+                    List<LocalDate> chunk = list.subList(from, Math.min(from + IN_CLAUSE_SIZE, list.size()));
+                    jdbcTemplate.query(SELECT_SQL + " WHERE rollup_date IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                            handler, chunk.toArray());
+                }
+            }
+    
+            lock.writeLock().lock();
+            try {
+                Set<SeriesTotals> touched = new HashSet<>();
+                if (days == null) {
+                    series.clear();
+                } else {
+                    series.values().stream().filter(totals -> totals.daily.keySet().removeAll(days)).forEach(touched::add);
+                }
+                rows.forEach((bucket, totals) -> {
+                    SeriesTotals seriesTotals = series.computeIfAbsent(bucket.series(), key -> new SeriesTotals());
+                    seriesTotals.daily.put(bucket.day(), totals);
+                    touched.add(seriesTotals);
+                });
+                touched.forEach(SeriesTotals::reindex);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    private static Bucket bucketOf(ResultSet rs) throws SQLException {
+        return new Bucket(rs.getObject(1, LocalDate.class),
+                new Series(rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5)));
+    }
+    
+    /**
+     * Daily totals of one series and their prefix sums: {@code prefix[i]} is the sum of
+     * the first i days, so a range is the difference of two prefixes.
+     */
+    private static final class SeriesTotals {
+        private final TreeMap<LocalDate, Totals> daily = new TreeMap<>();
+        private long[] days = new long[0];
+        private Totals[] prefix = {Totals.ZERO};
+    
+        void reindex() {
+            days = new long[daily.size()];
+            prefix = new Totals[daily.size() + 1];
+            prefix[0] = Totals.ZERO;
+            int i = 0;
+            for (Map.Entry<LocalDate, Totals> entry : daily.entrySet()) {
+                days[i] = entry.getKey().toEpochDay();
+                prefix[i + 1] = prefix[i].plus(entry.getValue());
+                i++;
+            }
+        }
+    
+        Totals between(long from, long to) {
+            return prefix[firstAfter(to)].minus(prefix[firstAfter(from - 1)]);
+        }
+    
+        // Index of the first day after the given one
+        private int firstAfter(long day) {
+            int low = 0;
+            int high = days.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+    
+    // ============ ANALYTICS ============
+    
+    /**
+     * Collected and outstanding amounts between two days, inclusive, optionally narrowed
+     * to a term, fee type or payment method and broken down by one of feeType,
+     * paymentMethod, semester or academicYear. Collected amounts fall on the payment
+     * date and outstanding amounts on the due date; outstanding fees have no payment
+     * method, so filtering by one leaves only collected amounts.
+     */
+    public Map<String, Object> getAnalytics(LocalDate from, LocalDate to, String semester, String academicYear,
+                                            Long feeTypeId, String paymentMethod, String groupBy) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (groupBy != null && !GROUP_BY.contains(groupBy)) {
+            throw new IllegalArgumentException("groupBy must be one of " + new TreeSet<>(GROUP_BY));
+        }
+        long fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE + 1;
+        long toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+    
+        Totals total = Totals.ZERO;
+        Map<Object, Totals> groups = new TreeMap<>((a, b) -> a instanceof Long x && b instanceof Long y
+                ? Long.compare(x, y) : String.valueOf(a).compareTo(String.valueOf(b)));
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Series, SeriesTotals> entry : series.entrySet()) {
+                Series key = entry.getKey();
+                if ((semester != null && !semester.equalsIgnoreCase(key.semester()))
+                        || (academicYear != null && !academicYear.equals(key.academicYear()))
+                        || (feeTypeId != null && feeTypeId != key.feeTypeId())
+                        || (paymentMethod != null && !paymentMethod.equalsIgnoreCase(key.paymentMethod()))) {
+                    continue;
+                }
+                Totals totals = entry.getValue().between(fromDay, toDay);
+                if (totals.isZero()) {
+                    continue;
+                }
+                total = total.plus(totals);
+                if (groupBy != null) {
+                    groups.merge(groupKey(key, groupBy), totals, Totals::plus);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", from);
+        response.put("to", to);
+        response.put("semester", semester);
+        response.put("academicYear", academicYear);
+        response.put("feeTypeId", feeTypeId);
+        response.put("paymentMethod", paymentMethod);
+        response.put("totals", toMap(total));
+        if (groupBy != null) {
+            Map<Long, String> feeTypeNames = "feeType".equals(groupBy)
+                    ? feeTypeRepository.findAll().stream().collect(Collectors.toMap(FeeType::getId, FeeType::getName))
+                    : Map.of();
+            List<Map<String, Object>> rows = new ArrayList<>();
+            groups.forEach((value, totals) -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                if ("feeType".equals(groupBy)) {
+                    row.put("feeTypeId", value);
+                    row.put("feeTypeName", feeTypeNames.get(value));
+                } else {
+                    row.put(groupBy, "".equals(value) ? null : value);
+                }
+                row.putAll(toMap(totals));
+                rows.add(row);
+            });
+            response.put("groupBy", groupBy);
+            response.put("groups", rows);
+        }
+        return response;
+    }
+    
+    private static Object groupKey(Series series, String groupBy) {
+        return switch (groupBy) {
+            case "feeType" -> series.feeTypeId();
+            case "paymentMethod" -> series.paymentMethod();
+            case "semester" -> series.semester();
+            default -> series.academicYear();
+        };
+    }
+    
+    private static Map<String, Object> toMap(Totals totals) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("collectedAmount", round(totals.collectedAmount()));
+        map.put("collectedCount", totals.collectedCount());
+        map.put("outstandingAmount", round(totals.outstandingAmount()));
+        map.put("outstandingCount", totals.outstandingCount());
+        return map;
+    }
+    
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
@@ -1,7 +1,9 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.DuplicateResourceException;
 import com.hostel.exception.ResourceNotFoundException;
+import com.hostel.model.FeeLedger;
 import com.hostel.model.FeePayment;
 import com.hostel.model.FeeType;
 import com.hostel.model.Student;
@@ -9,13 +11,12 @@ import com.hostel.repository.FeePaymentRepository;
 import com.hostel.repository.FeeTypeRepository;
 import com.hostel.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +25,11 @@ public class FeeService {
     private final FeePaymentRepository feePaymentRepository;
     private final FeeTypeRepository feeTypeRepository;
     private final StudentRepository studentRepository;
+    private final FeeLedgerService feeLedgerService;
+    private final FeeRollupService feeRollupService;
+    private final LateFeeService lateFeeService;
+    private final ReceiptNumberAllocator receiptNumberAllocator;
+    private final FeeTermLock feeTermLock;
     
     // ============ FEE TYPE OPERATIONS ============
     
@@ -39,6 +45,10 @@ public class FeeService {
         return feeTypeRepository.findAll();
     }
     
+    public KeysetPage<FeeType> getFeeTypesPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, feeTypeRepository::findByIdGreaterThanOrderByIdAsc, FeeType::getId);
+    }
+    
     public List<FeeType> getActiveFeeTypes() {
         return feeTypeRepository.findByIsActive(true);
     }
@@ -63,6 +73,9 @@ public class FeeService {
         feeType.setDescription(feeTypeDetails.getDescription());
         feeType.setIsMandatory(feeTypeDetails.getIsMandatory());
         feeType.setIsActive(feeTypeDetails.getIsActive());
+        feeType.setLateFeePerDay(feeTypeDetails.getLateFeePerDay());
+        feeType.setLateFeeGraceDays(feeTypeDetails.getLateFeeGraceDays());
+        feeType.setLateFeeCap(feeTypeDetails.getLateFeeCap());
         
         return feeTypeRepository.save(feeType);
     }
@@ -93,24 +106,34 @@ public class FeeService {
             feePayment.setAmount(feeType.getAmount());
         }
         
-        // Calculate late fee if overdue
-        if (feePayment.getDueDate() != null && LocalDate.now().isAfter(feePayment.getDueDate())) {
-            long daysOverdue = ChronoUnit.DAYS.between(feePayment.getDueDate(), LocalDate.now());
-            double lateFeePerDay = 10.0; // Rs. 10 per day
-            feePayment.setLateFee(daysOverdue * lateFeePerDay);
+        // Calculate late fee if overdue, per the fee type's policy
+        if (feePayment.getDueDate() != null
+                && lateFeeService.daysOverdue(feeType, feePayment.getDueDate(), LocalDate.now()) > 0) {
+            feePayment.setLateFee(lateFeeService.lateFee(feeType, feePayment.getDueDate(), LocalDate.now()));
             feePayment.setStatus("OVERDUE");
         }
         
         // Calculate total amount
         feePayment.setTotalAmount(feePayment.getAmount() + feePayment.getLateFee());
         
-        return feePaymentRepository.save(feePayment);
+        // Waits for a term fee generation in progress, which then sees this payment as billed
+        if (feePayment.getSemester() != null && feePayment.getAcademicYear() != null) {
+            feeTermLock.lock(feePayment.getSemester(), feePayment.getAcademicYear());
+        }
+        FeePayment saved = feePaymentRepository.save(feePayment);
+        feeLedgerService.apply(saved.getStudentId(), FeeLedgerService.Contribution.NONE, FeeLedgerService.contributionOf(saved));
+        feeRollupService.apply(FeeRollupService.Share.NONE, FeeRollupService.shareOf(saved));
+        return saved;
     }
     
     public List<FeePayment> getAllFeePayments() {
         return feePaymentRepository.findAll();
     }
     
+    public KeysetPage<FeePayment> getFeePaymentsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, feePaymentRepository::findByIdGreaterThanOrderByIdAsc, FeePayment::getId);
+    }
+    
     public FeePayment getFeePaymentById(Long id) {
         return feePaymentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Fee payment not found with id: " + id));
@@ -129,13 +152,15 @@ public class FeeService {
     }
     
     public Double getTotalPaidByStudent(Long studentId) {
-        Double total = feePaymentRepository.getTotalPaidByStudent(studentId);
-        return total != null ? total : 0.0;
+        return feeLedgerService.getLedger(studentId).getPaidAmount();
     }
     
     public Double getTotalPendingByStudent(Long studentId) {
-        Double total = feePaymentRepository.getTotalPendingByStudent(studentId);
-        return total != null ? total : 0.0;
+        return feeLedgerService.getLedger(studentId).getPendingAmount();
+    }
+    
+    public FeeLedger getFeeBalance(Long studentId) {
+        return feeLedgerService.getLedger(studentId);
     }
     
     @Transactional
@@ -145,19 +170,35 @@ public class FeeService {
         if ("PAID".equals(feePayment.getStatus())) {
             throw new IllegalStateException("Fee payment is already paid");
         }
+        if (transactionId != null && feePaymentRepository.existsByTransactionId(transactionId)) {
+            throw new DuplicateResourceException("Transaction " + transactionId + " is already recorded");
+        }
+        FeeLedgerService.Contribution before = FeeLedgerService.contributionOf(feePayment);
+        FeeRollupService.Share shareBefore = FeeRollupService.shareOf(feePayment);
         
         feePayment.setStatus("PAID");
         feePayment.setPaymentDate(LocalDate.now());
         feePayment.setPaymentMethod(paymentMethod);
         feePayment.setTransactionId(transactionId);
-        feePayment.setReceiptNumber("RCP-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        feePayment.setReceiptNumber(receiptNumberAllocator.next());
         
-        return feePaymentRepository.save(feePayment);
+        FeePayment saved;
+        try {
+            // Flushed here so the unique transaction ID index catches a concurrent payment with the same ID
+            saved = feePaymentRepository.saveAndFlush(feePayment);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateResourceException("Transaction " + transactionId + " is already recorded");
+        }
+        feeLedgerService.apply(saved.getStudentId(), before, FeeLedgerService.contributionOf(saved));
+        feeRollupService.apply(shareBefore, FeeRollupService.shareOf(saved));
+        return saved;
     }
     
     @Transactional
     public FeePayment updateFeePayment(Long id, FeePayment feePaymentDetails) {
         FeePayment feePayment = getFeePaymentById(id);
+        FeeLedgerService.Contribution before = FeeLedgerService.contributionOf(feePayment);
+        FeeRollupService.Share shareBefore = FeeRollupService.shareOf(feePayment);
         
         feePayment.setAmount(feePaymentDetails.getAmount());
         feePayment.setLateFee(feePaymentDetails.getLateFee());
@@ -167,12 +208,17 @@ public class FeeService {
         feePayment.setAcademicYear(feePaymentDetails.getAcademicYear());
         feePayment.setRemarks(feePaymentDetails.getRemarks());
         
-        return feePaymentRepository.save(feePayment);
+        FeePayment saved = feePaymentRepository.save(feePayment);
+        feeLedgerService.apply(saved.getStudentId(), before, FeeLedgerService.contributionOf(saved));
+        feeRollupService.apply(shareBefore, FeeRollupService.shareOf(saved));
+        return saved;
     }
     
     @Transactional
     public void deleteFeePayment(Long id) {
         FeePayment feePayment = getFeePaymentById(id);
         feePaymentRepository.delete(feePayment);
+        feeLedgerService.apply(feePayment.getStudentId(), FeeLedgerService.contributionOf(feePayment), FeeLedgerService.Contribution.NONE);
+        feeRollupService.apply(FeeRollupService.shareOf(feePayment), FeeRollupService.Share.NONE);
     }
 }
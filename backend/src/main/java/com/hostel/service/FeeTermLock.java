@@ -0,0 +1,60 @@
+package com.hostel.service;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes writers that bill students for a term, so a writer that checks which
+ * payments a term already has sees every payment committed before it. On PostgreSQL this
+ * is a transaction-level advisory lock on the term, which holds across instances. Other
+ * databases (H2 for local runs) serve a single instance and use one in-JVM lock. Either
+ * way the lock is held until the transaction ends.
+ */
+@Component
+public class FeeTermLock {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock localLock = new ReentrantLock();
+    private volatile Boolean postgres;
+    
+    public FeeTermLock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Waits for the term's lock and holds it until the current transaction ends.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(String semester, String academicYear) {
+        if (isPostgres()) {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> null, key(semester, academicYear));
+        } else {
+            localLock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    localLock.unlock();
+                }
+            });
+        }
+    }
+    
+    private static String key(String semester, String academicYear) {
+        return "fee_payments/" + academicYear + "/" + semester;
+    }
+    
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.GatePass;
 import com.hostel.model.Student;
@@ -38,6 +39,10 @@ public class GatePassService {
         return gatePassRepository.findAll();
     }
     
+    public KeysetPage<GatePass> getGatePassesPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, gatePassRepository::findByIdGreaterThanOrderByIdAsc, GatePass::getId);
+    }
+    
     public GatePass getGatePassById(Long id) {
         return gatePassRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Gate pass not found with id: " + id));
@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.DuplicateResourceException;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.InventoryItem;
@@ -43,6 +44,10 @@ public class InventoryService {
         return inventoryItemRepository.findAll();
     }
     
+    public KeysetPage<InventoryItem> getItemsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, inventoryItemRepository::findByIdGreaterThanOrderByIdAsc, InventoryItem::getId);
+    }
+    
     public InventoryItem getItemById(Long id) {
         return inventoryItemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory item not found with id: " + id));
@@ -116,6 +121,10 @@ public class InventoryService {
         return itemAllocationRepository.findAll();
     }
     
+    public KeysetPage<ItemAllocation> getAllocationsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, itemAllocationRepository::findByIdGreaterThanOrderByIdAsc, ItemAllocation::getId);
+    }
+    
     public ItemAllocation getAllocationById(Long id) {
         return itemAllocationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Item allocation not found with id: " + id));
@@ -0,0 +1,207 @@
+package com.hostel.service;
+
+import com.hostel.model.FeeType;
+import com.hostel.model.LateFeeRun;
+import com.hostel.repository.FeeTypeRepository;
+import com.hostel.repository.LateFeeRunRepository;
+import com.hostel.search.SearchResultCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Late fee policy and the nightly recalculation of overdue fees. The late fee of an unpaid
+ * fee depends only on its fee type and due date, so a run groups unpaid fees by those two
+ * columns in the database and issues one UPDATE per group. No fee rows are loaded, which
+ * keeps a run over millions of fees to a few statements per due date.
+ */
+@Service
+public class LateFeeService {
+    private static final Logger logger = LoggerFactory.getLogger(LateFeeService.class);
+    
+    private static final String DUE_GROUPS_SQL =
+            "SELECT fee_type_id, due_date FROM fee_payments " +
+            "WHERE status IN ('PENDING', 'OVERDUE') AND due_date < ? GROUP BY fee_type_id, due_date";
+    
+    private static final String MARK_OVERDUE_SQL =
+            "UPDATE fee_payments SET late_fee = ?, total_amount = amount + ?, status = 'OVERDUE', updated_at = ? " +
+            "WHERE fee_type_id = ? AND due_date = ? AND status = 'PENDING'";
+    
+    // Rows already at the current late fee, for example once capped, are left alone
+    private static final String RECALCULATE_SQL =
+            "UPDATE fee_payments SET late_fee = ?, total_amount = amount + ?, updated_at = ? " +
+            "WHERE fee_type_id = ? AND due_date = ? AND status = 'OVERDUE' AND (late_fee IS NULL OR late_fee <> ?)";
+    
+    private final FeeTypeRepository feeTypeRepository;
+    private final LateFeeRunRepository lateFeeRunRepository;
+    private final FeeLedgerService feeLedgerService;
+    private final FeeRollupService feeRollupService;
+    private final SearchResultCache searchResultCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double defaultPerDay;
+    private final int defaultGraceDays;
+    private final double defaultCap;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    public LateFeeService(FeeTypeRepository feeTypeRepository,
+                          LateFeeRunRepository lateFeeRunRepository,
+                          FeeLedgerService feeLedgerService,
+                          FeeRollupService feeRollupService,
+                          SearchResultCache searchResultCache,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${fees.late-fee.per-day:10.0}") double defaultPerDay,
+                          @Value("${fees.late-fee.grace-days:0}") int defaultGraceDays,
+                          @Value("${fees.late-fee.cap:0}") double defaultCap) {
+        this.feeTypeRepository = feeTypeRepository;
+        this.lateFeeRunRepository = lateFeeRunRepository;
+        this.feeLedgerService = feeLedgerService;
+        this.feeRollupService = feeRollupService;
+        this.searchResultCache = searchResultCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultPerDay = defaultPerDay;
+        this.defaultGraceDays = defaultGraceDays;
+        this.defaultCap = defaultCap;
+    }
+    
+    // ============ POLICY ============
+    
+    /**
+     * Days a fee due on {@code dueDate} is overdue as of {@code asOf}, after the fee type's
+     * grace period. Zero or less means not yet overdue.
+     */
+    public long daysOverdue(FeeType feeType, LocalDate dueDate, LocalDate asOf) {
+        int grace = feeType.getLateFeeGraceDays() != null ? feeType.getLateFeeGraceDays() : defaultGraceDays;
+        return ChronoUnit.DAYS.between(dueDate, asOf) - grace;
+    }
+    
+    /**
+     * Late fee owed as of the given day: a daily rate per overdue day, capped when the fee
+     * type (or the default) sets a cap above zero.
+     */
+    public double lateFee(FeeType feeType, LocalDate dueDate, LocalDate asOf) {
+        long days = daysOverdue(feeType, dueDate, asOf);
+        if (days <= 0) {
+            return 0.0;
+        }
+        double perDay = feeType.getLateFeePerDay() != null ? feeType.getLateFeePerDay() : defaultPerDay;
+        double cap = feeType.getLateFeeCap() != null ? feeType.getLateFeeCap() : defaultCap;
+        double fee = days * perDay;
+        return cap > 0 ? Math.min(fee, cap) : fee;
+    }
+    
+    // ============ RECALCULATION ============
+    
+    @Scheduled(cron = "${fees.late-fee.cron:0 15 1 * * *}")
+    public void runNightly() {
+        recalculate(LocalDate.now(), "SCHEDULER");
+    }
+    
+    /**
+     * Marks unpaid fees past their grace period as overdue and brings every overdue fee's
+     * late fee and total up to date as of the given day. Each fee type is updated in its
+     * own transaction; the fee ledger and rollups are reconciled afterwards.
+     */
+    public LateFeeRun recalculate(LocalDate asOf, String triggeredBy) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A late fee run is already in progress");
+        }
+        LateFeeRun run = new LateFeeRun();
+        run.setAsOfDate(asOf);
+        run.setTriggeredBy(triggeredBy);
+        run.setStartedAt(LocalDateTime.now());
+        run = lateFeeRunRepository.save(run);
+        try {
+            Map<Long, FeeType> feeTypes = feeTypeRepository.findAll().stream()
+                    .collect(Collectors.toMap(FeeType::getId, Function.identity()));
+            Map<Long, List<LocalDate>> dueDatesByType = new HashMap<>();
+            jdbcTemplate.query(DUE_GROUPS_SQL, rs -> {
+                dueDatesByType.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+                        .add(rs.getObject(2, LocalDate.class));
+            }, asOf);
+    
+            LocalDateTime now = LocalDateTime.now();
+            int groups = 0;
+            int newlyOverdue = 0;
+            int recalculated = 0;
+            for (Map.Entry<Long, List<LocalDate>> entry : dueDatesByType.entrySet()) {
+                FeeType feeType = feeTypes.get(entry.getKey());
+                if (feeType == null) {
+                    continue;
+                }
+                List<Object[]> markArgs = new ArrayList<>();
+                List<Object[]> recalculateArgs = new ArrayList<>();
+                for (LocalDate dueDate : entry.getValue()) {
+                    if (daysOverdue(feeType, dueDate, asOf) <= 0) {
+                        continue;
+                    }
+                    double fee = lateFee(feeType, dueDate, asOf);
+                    markArgs.add(new Object[]{fee, fee, now, feeType.getId(), dueDate});
+                    recalculateArgs.add(new Object[]{fee, fee, now, feeType.getId(), dueDate, fee});
+                    groups++;
+                }
+                if (markArgs.isEmpty()) {
+                    continue;
+                }
+                int[] counts = transactionTemplate.execute(status -> new int[]{
+                        sum(jdbcTemplate.batchUpdate(MARK_OVERDUE_SQL, markArgs)),
+                        sum(jdbcTemplate.batchUpdate(RECALCULATE_SQL, recalculateArgs))
+                });
+                newlyOverdue += counts[0];
+                recalculated += counts[1];
+            }
+    
+            if (newlyOverdue + recalculated > 0) {
+                searchResultCache.invalidate(SearchResultCache.Region.FEE);
+            }
+            run.setDueGroups(groups);
+            run.setNewlyOverdue(newlyOverdue);
+            run.setLateFeesRecalculated(recalculated);
+            run.setLedgerRowsCorrected(feeLedgerService.reconcile());
+            feeRollupService.reconcile();
+            run.setStatus("COMPLETED");
+            logger.info("Late fee run {} as of {}: {} groups, {} newly overdue, {} recalculated",
+                    run.getId(), asOf, groups, newlyOverdue, recalculated);
+        } catch (RuntimeException e) {
+            run.setStatus("FAILED");
+            run.setMessage(e.getMessage() == null ? e.getClass().getSimpleName()
+                    : e.getMessage().substring(0, Math.min(500, e.getMessage().length())));
+            logger.error("Late fee run {} failed", run.getId(), e);
+            throw e;
+        } finally {
+            run.setFinishedAt(LocalDateTime.now());
+            lateFeeRunRepository.save(run);
+            running.set(false);
+        }
+        return run;
+    }
+    
+    public List<LateFeeRun> getRecentRuns(int limit) {
+        return lateFeeRunRepository.findByOrderByIdDesc(Limit.of(Math.max(1, Math.min(limit, 100))));
+    }
+    
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.LaundryRequest;
 import com.hostel.model.Student;
@@ -45,6 +46,10 @@ public class LaundryService {
         return laundryRequestRepository.findAll();
     }
     
+    public KeysetPage<LaundryRequest> getRequestsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, laundryRequestRepository::findByIdGreaterThanOrderByIdAsc, LaundryRequest::getId);
+    }
+    
     public LaundryRequest getRequestById(Long id) {
         return laundryRequestRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Laundry request not found with id: " + id));
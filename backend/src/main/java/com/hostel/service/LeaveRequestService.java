@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.LeaveRequest;
 import com.hostel.model.Student;
@@ -34,6 +35,10 @@ public class LeaveRequestService {
         return leaveRequestRepository.findAll();
     }
     
+    public KeysetPage<LeaveRequest> getLeaveRequestsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, leaveRequestRepository::findByIdGreaterThanOrderByIdAsc, LeaveRequest::getId);
+    }
+    
     public LeaveRequest getLeaveRequestById(Long id) {
         return leaveRequestRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Leave request not found with id: " + id));
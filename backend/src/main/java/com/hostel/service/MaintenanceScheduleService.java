@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.MaintenanceSchedule;
 import com.hostel.repository.MaintenanceScheduleRepository;
@@ -26,6 +27,10 @@ public class MaintenanceScheduleService {
         return maintenanceScheduleRepository.findAll();
     }
     
+    public KeysetPage<MaintenanceSchedule> getSchedulesPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, maintenanceScheduleRepository::findByIdGreaterThanOrderByIdAsc, MaintenanceSchedule::getId);
+    }
+    
     public MaintenanceSchedule getScheduleById(Long id) {
         return maintenanceScheduleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Maintenance schedule not found with id: " + id));
@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.MessMenu;
 import com.hostel.repository.MessMenuRepository;
@@ -25,6 +26,10 @@ public class MessMenuService {
         return messMenuRepository.findAll();
     }
     
+    public KeysetPage<MessMenu> getMessMenusPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, messMenuRepository::findByIdGreaterThanOrderByIdAsc, MessMenu::getId);
+    }
+    
     public MessMenu getMessMenuById(Long id) {
         return messMenuRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Mess menu not found with id: " + id));
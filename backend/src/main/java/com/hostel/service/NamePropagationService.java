@@ -0,0 +1,204 @@
+package com.hostel.service;
+
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.model.PropagationOutbox;
+import com.hostel.model.Room;
+import com.hostel.repository.PropagationOutboxRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.search.SearchResultCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps denormalized student names and room numbers in step with their source rows.
+ * A rename only writes an outbox row; after commit a background drain rewrites every copy
+ * with one set-based UPDATE per table for the whole batch. A periodic sweep retries
+ * anything left behind by a failure or restart.
+ */
+@Service
+public class NamePropagationService {
+    private static final Logger logger = LoggerFactory.getLogger(NamePropagationService.class);
+    
+    public static final String STUDENT_NAME = "STUDENT_NAME";
+    public static final String ROOM_NUMBER = "ROOM_NUMBER";
+    
+    // Tables holding a copy of students.name in student_name, keyed by student_id
+    private static final List<String> STUDENT_NAME_COPIES = List.of(
+            "attendance", "beds", "complaints", "documents", "emergency_alerts", "emergency_contacts",
+            "fee_payments", "gate_passes", "item_allocations", "laundry_requests", "leave_requests",
+            "parent_access", "room_allocations", "room_change_requests", "visitors");
+    
+    // Copies of rooms.room_number: table, room id column, copied number column
+    private static final List<String[]> ROOM_NUMBER_COPIES = List.of(
+            new String[]{"room_allocations", "room_id", "room_number"},
+            new String[]{"room_change_requests", "current_room_id", "current_room_number"},
+            new String[]{"room_change_requests", "requested_room_id", "requested_room_number"},
+            new String[]{"room_maintenance", "room_id", "room_number"});
+    
+    // Copies of rooms.room_number without a room id column, matched on the previous number
+    private static final List<String> ROOM_NUMBER_COPIES_BY_NUMBER = List.of("students", "laundry_requests");
+    
+    private final PropagationOutboxRepository outboxRepository;
+    private final RoomRepository roomRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService propagationExecutor;
+    private final SearchResultCache searchResultCache;
+    private final ReceiptService receiptService;
+    private final int batchSize;
+    
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+    
+    public NamePropagationService(PropagationOutboxRepository outboxRepository,
+                                  RoomRepository roomRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("propagationExecutor") ExecutorService propagationExecutor,
+                                  SearchResultCache searchResultCache,
+                                  ReceiptService receiptService,
+                                  @Value("${propagation.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.roomRepository = roomRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.propagationExecutor = propagationExecutor;
+        this.searchResultCache = searchResultCache;
+        this.receiptService = receiptService;
+        this.batchSize = batchSize;
+    }
+    
+    // ============ ENQUEUE (caller's transaction) ============
+    
+    public void studentRenamed(Long studentId) {
+        outboxRepository.save(new PropagationOutbox(null, STUDENT_NAME, studentId, null, null));
+    }
+    
+    public void roomRenumbered(Long roomId, String previousNumber) {
+        outboxRepository.save(new PropagationOutbox(null, ROOM_NUMBER, roomId, previousNumber, null));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entity() instanceof PropagationOutbox && !event.isDeleted()) {
+            requestDrain();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${propagation.sweep-interval-ms:60000}")
+    public void sweep() {
+        requestDrain();
+    }
+    
+    public long pending() {
+        return outboxRepository.count();
+    }
+    
+    // ============ DRAIN (background thread) ============
+    
+    private void requestDrain() {
+        // Any number of renames committed while a drain is queued are picked up by that drain
+        if (drainQueued.compareAndSet(false, true)) {
+            propagationExecutor.execute(() -> {
+                drainQueued.set(false);
+                drain();
+            });
+        }
+    }
+    
+    private void drain() {
+        int processed = 0;
+        Set<Long> renamedStudents = new HashSet<>();
+        try {
+            int count;
+            do {
+                count = transactionTemplate.execute(status -> {
+                    List<PropagationOutbox> batch = outboxRepository.findByOrderByIdAsc(Limit.of(batchSize));
+                    if (!batch.isEmpty()) {
+                        renamedStudents.addAll(apply(batch));
+                        outboxRepository.deleteAllInBatch(batch);
+                    }
+                    return batch.size();
+                });
+                processed += count;
+            } while (count == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Name propagation failed, will retry on next sweep: {}", e.getMessage());
+        }
+        if (processed > 0) {
+            invalidateCachedCopies(renamedStudents);
+            logger.debug("Propagated {} rename(s)", processed);
+        }
+    }
+    
+    /**
+     * Rewrites the copies changed by a batch and returns the renamed students.
+     */
+    private List<Long> apply(List<PropagationOutbox> batch) {
+        List<Long> studentIds = batch.stream()
+                .filter(entry -> STUDENT_NAME.equals(entry.getKind()))
+                .map(PropagationOutbox::getEntityId)
+                .distinct()
+                .toList();
+        if (!studentIds.isEmpty()) {
+            String in = placeholders(studentIds.size());
+            for (String table : STUDENT_NAME_COPIES) {
+                jdbcTemplate.update("UPDATE " + table + " SET student_name = " +
+                        "(SELECT s.name FROM students s WHERE s.id = " + table + ".student_id) " +
+                        "WHERE student_id IN (" + in + ")", studentIds.toArray());
+            }
+        }
+        
+        List<PropagationOutbox> roomChanges = batch.stream()
+                .filter(entry -> ROOM_NUMBER.equals(entry.getKind()))
+                .toList();
+        if (!roomChanges.isEmpty()) {
+            List<Long> roomIds = roomChanges.stream().map(PropagationOutbox::getEntityId).distinct().toList();
+            String in = placeholders(roomIds.size());
+            for (String[] copy : ROOM_NUMBER_COPIES) {
+                jdbcTemplate.update("UPDATE " + copy[0] + " SET " + copy[2] + " = " +
+                        "(SELECT r.room_number FROM rooms r WHERE r.id = " + copy[0] + "." + copy[1] + ") " +
+                        "WHERE " + copy[1] + " IN (" + in + ")", roomIds.toArray());
+            }
+            
+            // Copies without a room id are matched on the old number
+            Map<Long, String> currentNumbers = roomRepository.findAllById(roomIds).stream()
+                    .collect(Collectors.toMap(Room::getId, Room::getRoomNumber));
+            List<Object[]> renumbers = roomChanges.stream()
+                    .filter(entry -> entry.getPreviousValue() != null && currentNumbers.containsKey(entry.getEntityId()))
+                    .map(entry -> new Object[]{currentNumbers.get(entry.getEntityId()), entry.getPreviousValue()})
+                    .toList();
+            for (String table : ROOM_NUMBER_COPIES_BY_NUMBER) {
+                jdbcTemplate.batchUpdate("UPDATE " + table + " SET room_number = ? WHERE room_number = ?", renumbers);
+            }
+        }
+        return studentIds;
+    }
+    
+    private void invalidateCachedCopies(Set<Long> renamedStudents) {
+        searchResultCache.invalidate(SearchResultCache.Region.STUDENT);
+        searchResultCache.invalidate(SearchResultCache.Region.FEE);
+        searchResultCache.invalidate(SearchResultCache.Region.COMPLAINT);
+        // Receipts print fee_payments.student_name, which the JDBC updates bypass JPA to change
+        if (!renamedStudents.isEmpty()) {
+            receiptService.evictStudents(renamedStudents);
+        }
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.Notification;
 import com.hostel.repository.NotificationRepository;
@@ -37,6 +38,10 @@ public class NotificationService {
         return notificationRepository.findAll();
     }
     
+    public KeysetPage<Notification> getNotificationsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, notificationRepository::findByIdGreaterThanOrderByIdAsc, Notification::getId);
+    }
+    
     public Notification getNotificationById(Long id) {
         return notificationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + id));
@@ -0,0 +1,224 @@
+package com.hostel.service;
+
+import com.hostel.allocation.OccupancyMap;
+import com.hostel.model.OccupancySnapshot;
+import com.hostel.model.Room;
+import com.hostel.model.RoomAllocation;
+import com.hostel.repository.OccupancySnapshotRepository;
+import com.hostel.repository.RoomAllocationRepository;
+import com.hostel.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Occupancy over time. A daily job writes per-room and per-block rollups, and history
+ * queries read only those rollups. The forecast projects vacancies from the planned end
+ * dates of active allocations.
+ */
+@Service
+@RequiredArgsConstructor
+public class OccupancyAnalyticsService {
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyAnalyticsService.class);
+    
+    public static final int MAX_RANGE_DAYS = 400;
+    public static final int MAX_FORECAST_DAYS = 180;
+    private static final int INSERT_BATCH_SIZE = 1000;
+    
+    private final OccupancySnapshotRepository snapshotRepository;
+    private final RoomAllocationRepository roomAllocationRepository;
+    private final RoomRepository roomRepository;
+    private final OccupancyMap occupancyMap;
+    private final JdbcTemplate jdbcTemplate;
+    
+    // ============ SNAPSHOTS ============
+    
+    @Scheduled(cron = "${occupancy.snapshot.cron:0 5 0 * * *}")
+    @Transactional
+    public void snapshotToday() {
+        int rows = captureSnapshot(LocalDate.now());
+        logger.info("Occupancy snapshot written: {} rows", rows);
+    }
+    
+    /**
+     * Records the live occupancy as the given day's snapshot, replacing any earlier one.
+     */
+    @Transactional
+    public int captureSnapshot(LocalDate date) {
+        List<OccupancySnapshot> rows = new ArrayList<>();
+        Map<String, int[]> blocks = new HashMap<>();
+        for (OccupancyMap.RoomVacancy room : occupancyMap.findRooms(null, null, null, null, null)) {
+            rows.add(new OccupancySnapshot(null, date, room.roomId(), room.block(), room.occupiedBeds(), room.capacity()));
+            int[] block = blocks.computeIfAbsent(room.block(), b -> new int[2]);
+            block[0] += room.occupiedBeds();
+            block[1] += room.capacity();
+        }
+        blocks.forEach((block, totals) -> rows.add(new OccupancySnapshot(null, date, null, block, totals[0], totals[1])));
+        
+        snapshotRepository.deleteBySnapshotDateBetween(date, date);
+        insert(rows);
+        return rows.size();
+    }
+    
+    /**
+     * Rebuilds snapshots for past days by replaying the allocations that overlap the
+     * range. One-off maintenance for days the daily job did not run; an allocation holds
+     * its bed from fromDate up to, but not including, toDate.
+     */
+    @Transactional
+    public int backfill(LocalDate from, LocalDate to) {
+        int days = checkedRange(from, to);
+        
+        Map<Long, Room> rooms = new HashMap<>();
+        roomRepository.findAll().forEach(room -> rooms.put(room.getId(), room));
+        
+        // Difference arrays per room: +1 on the first occupied day, -1 on the day after the last
+        Map<Long, int[]> deltas = new HashMap<>();
+        for (RoomAllocation allocation : roomAllocationRepository.findOverlapping(from, to)) {
+            if (!rooms.containsKey(allocation.getRoomId())) {
+                continue;
+            }
+            LocalDate start = allocation.getFromDate().isBefore(from) ? from : allocation.getFromDate();
+            LocalDate end = allocation.getToDate() == null || allocation.getToDate().isAfter(to)
+                    ? to.plusDays(1) : allocation.getToDate();
+            if (!start.isBefore(end)) {
+                continue;
+            }
+            int[] delta = deltas.computeIfAbsent(allocation.getRoomId(), id -> new int[days + 1]);
+            delta[(int) ChronoUnit.DAYS.between(from, start)]++;
+            delta[(int) ChronoUnit.DAYS.between(from, end)]--;
+        }
+        
+        List<OccupancySnapshot> rows = new ArrayList<>();
+        Map<Long, Integer> running = new HashMap<>();
+        for (int day = 0; day < days; day++) {
+            LocalDate date = from.plusDays(day);
+            Map<String, int[]> blocks = new HashMap<>();
+            for (Room room : rooms.values()) {
+                int[] delta = deltas.get(room.getId());
+                int occupied = running.getOrDefault(room.getId(), 0) + (delta == null ? 0 : delta[day]);
+                running.put(room.getId(), occupied);
+                rows.add(new OccupancySnapshot(null, date, room.getId(), room.getBlock(), occupied, room.getCapacity()));
+                int[] block = blocks.computeIfAbsent(room.getBlock(), b -> new int[2]);
+                block[0] += occupied;
+                block[1] += room.getCapacity();
+            }
+            blocks.forEach((block, totals) -> rows.add(new OccupancySnapshot(null, date, null, block, totals[0], totals[1])));
+        }
+        
+        snapshotRepository.deleteBySnapshotDateBetween(from, to);
+        insert(rows);
+        return rows.size();
+    }
+    
+    // ============ QUERIES ============
+    
+    public Map<String, Object> getHistory(LocalDate from, LocalDate to, String block, Long roomId) {
+        checkedRange(from, to);
+        
+        List<Map<String, Object>> series = new ArrayList<>();
+        String scope;
+        if (roomId != null) {
+            scope = "room:" + roomId;
+            snapshotRepository.findBySnapshotDateBetweenAndRoomIdOrderBySnapshotDate(from, to, roomId)
+                    .forEach(s -> series.add(point(s.getSnapshotDate(), s.getOccupiedBeds(), s.getTotalBeds())));
+        } else if (block != null) {
+            scope = "block:" + block;
+            snapshotRepository.findBySnapshotDateBetweenAndRoomIdIsNullAndBlockOrderBySnapshotDate(from, to, block)
+                    .forEach(s -> series.add(point(s.getSnapshotDate(), s.getOccupiedBeds(), s.getTotalBeds())));
+        } else {
+            scope = "all";
+            snapshotRepository.sumByDate(from, to).forEach(row -> series.add(point((LocalDate) row[0],
+                    ((Number) row[1]).intValue(), ((Number) row[2]).intValue())));
+        }
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("scope", scope);
+        response.put("from", from);
+        response.put("to", to);
+        response.put("series", series);
+        return response;
+    }
+    
+    /**
+     * Projects occupied beds and vacancies for the next days, assuming every active
+     * allocation ends on its toDate and no new allocations arrive.
+     */
+    public Map<String, Object> getForecast(int days, String block) {
+        if (days < 1 || days > MAX_FORECAST_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_FORECAST_DAYS);
+        }
+        LocalDate today = LocalDate.now();
+        
+        int occupied = 0;
+        int totalBeds = 0;
+        for (OccupancyMap.RoomVacancy room : occupancyMap.findRooms(block, null, null, null, null)) {
+            occupied += room.occupiedBeds();
+            totalBeds += room.capacity();
+        }
+        
+        Map<LocalDate, Long> ending = new HashMap<>();
+        roomAllocationRepository.countEndingByDate(today.plusDays(1), today.plusDays(days), block)
+                .forEach(row -> ending.put((LocalDate) row[0], ((Number) row[1]).longValue()));
+        
+        List<Map<String, Object>> projection = new ArrayList<>();
+        long projected = occupied;
+        for (int day = 1; day <= days; day++) {
+            LocalDate date = today.plusDays(day);
+            projected = Math.max(0, projected - ending.getOrDefault(date, 0L));
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("date", date);
+            point.put("projectedOccupied", projected);
+            point.put("projectedVacancies", totalBeds - projected);
+            projection.add(point);
+        }
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("block", block);
+        response.put("asOf", today);
+        response.put("occupiedBeds", occupied);
+        response.put("totalBeds", totalBeds);
+        response.put("forecast", projection);
+        return response;
+    }
+    
+    private static Map<String, Object> point(LocalDate date, int occupied, int total) {
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("date", date);
+        point.put("occupiedBeds", occupied);
+        point.put("totalBeds", total);
+        point.put("occupancyRate", total == 0 ? 0.0 : Math.round(occupied * 1000.0 / total) / 10.0);
+        return point;
+    }
+    
+    private static int checkedRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A valid from/to date range is required");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        return (int) days;
+    }
+    
+    private void insert(List<OccupancySnapshot> rows) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO occupancy_snapshots (snapshot_date, room_id, block, occupied_beds, total_beds) VALUES (?, ?, ?, ?, ?)",
+                rows, INSERT_BATCH_SIZE, (ps, row) -> {
+                    ps.setObject(1, row.getSnapshotDate());
+                    ps.setObject(2, row.getRoomId());
+                    ps.setString(3, row.getBlock());
+                    ps.setInt(4, row.getOccupiedBeds());
+                    ps.setInt(5, row.getTotalBeds());
+                });
+    }
+}
@@ -0,0 +1,208 @@
+package com.hostel.service;
+
+import com.hostel.dto.PaymentIngestionRequest;
+import com.hostel.dto.PaymentIngestionRequest.SettlementRow;
+import com.hostel.dto.PaymentIngestionResult;
+import com.hostel.model.FeePayment;
+import com.hostel.repository.FeePaymentRepository;
+import com.hostel.search.SearchResultCache;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Applies bank and UPI settlement rows to fee payments in one transaction per batch.
+ * Transaction IDs already seen, in the batch or in the database, are reported as
+ * duplicates, so re-sending a file changes nothing. Rows are matched to unpaid payments
+ * through hash tables built from one load of the candidates, and matched payments are
+ * marked paid with a JDBC batch of conditional updates.
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentIngestionService {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentIngestionService.class);
+    
+    public static final int MAX_INGEST_ROWS = 10000;
+    private static final int JDBC_BATCH_SIZE = 500;
+    private static final int IN_CLAUSE_SIZE = 1000;
+    private static final List<String> UNPAID_STATUSES = List.of("PENDING", "OVERDUE");
+    
+    private static final String MARK_PAID_SQL =
+            "UPDATE fee_payments SET status = 'PAID', payment_date = ?, payment_method = ?, transaction_id = ?, " +
+            "receipt_number = ?, updated_at = ? WHERE id = ? AND status IN ('PENDING', 'OVERDUE')";
+    
+    private final FeePaymentRepository feePaymentRepository;
+    private final FeeLedgerService feeLedgerService;
+    private final FeeRollupService feeRollupService;
+    private final ReceiptNumberAllocator receiptNumberAllocator;
+    private final SearchResultCache searchResultCache;
+    private final JdbcTemplate jdbcTemplate;
+    
+    private record Match(SettlementRow row, FeePayment payment, PaymentIngestionResult.Outcome outcome) {}
+    
+    @Transactional
+    public PaymentIngestionResult ingest(PaymentIngestionRequest request) {
+        List<SettlementRow> rows = request.getRows();
+        if (rows.size() > MAX_INGEST_ROWS) {
+            throw new IllegalArgumentException("At most " + MAX_INGEST_ROWS + " rows can be ingested at once");
+        }
+        PaymentIngestionResult result = new PaymentIngestionResult();
+        result.setSource(request.getSource());
+        result.setReceived(rows.size());
+    
+        Set<String> seen = existingTransactionIds(rows);
+    
+        // Build side: the named payments and every unpaid payment of the named students
+        Set<Long> paymentIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (SettlementRow row : rows) {
+            if (row.getFeePaymentId() != null) {
+                paymentIds.add(row.getFeePaymentId());
+            } else if (row.getStudentId() != null) {
+                studentIds.add(row.getStudentId());
+            }
+        }
+        Map<Long, FeePayment> byId = new HashMap<>();
+        feePaymentRepository.findAllById(paymentIds).forEach(payment -> byId.put(payment.getId(), payment));
+        Map<Long, Map<Long, Deque<FeePayment>>> byStudentAndAmount = new HashMap<>();
+        if (!studentIds.isEmpty()) {
+            feePaymentRepository.findByStudentIdInAndStatusIn(studentIds, UNPAID_STATUSES).stream()
+                    .sorted(Comparator.comparing(FeePayment::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(FeePayment::getId))
+                    .forEach(payment -> byStudentAndAmount
+                            .computeIfAbsent(payment.getStudentId(), id -> new HashMap<>())
+                            .computeIfAbsent(cents(payment.getTotalAmount()), amount -> new ArrayDeque<>())
+                            .add(payment));
+        }
+    
+        // Probe side: each row in file order, each payment settled at most once
+        Set<Long> claimed = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        for (SettlementRow row : rows) {
+            PaymentIngestionResult.Outcome outcome = new PaymentIngestionResult.Outcome();
+            outcome.setTransactionId(row.getTransactionId());
+            result.getOutcomes().add(outcome);
+    
+            if (!seen.add(row.getTransactionId())) {
+                outcome.setStatus("DUPLICATE");
+                outcome.setReason("Transaction already recorded");
+                result.setDuplicates(result.getDuplicates() + 1);
+                continue;
+            }
+            String problem = null;
+            FeePayment payment = null;
+            if (row.getFeePaymentId() != null) {
+                payment = byId.get(row.getFeePaymentId());
+                if (payment == null) {
+                    problem = "Fee payment not found";
+                } else if (!UNPAID_STATUSES.contains(payment.getStatus()) || claimed.contains(payment.getId())) {
+                    problem = "Fee payment is already paid";
+                } else if (row.getAmount() != null && cents(row.getAmount()) != cents(payment.getTotalAmount())) {
+                    problem = "Amount does not match the amount due";
+                }
+            } else if (row.getStudentId() != null && row.getAmount() != null) {
+                Deque<FeePayment> candidates = byStudentAndAmount
+                        .getOrDefault(row.getStudentId(), Map.of())
+                        .get(cents(row.getAmount()));
+                while (candidates != null && !candidates.isEmpty() && payment == null) {
+                    FeePayment candidate = candidates.poll();
+                    payment = claimed.contains(candidate.getId()) ? null : candidate;
+                }
+                if (payment == null) {
+                    problem = "No unpaid fee of this amount for the student";
+                }
+            } else {
+                problem = "Row needs a fee payment ID, or a student ID and amount";
+            }
+            if (problem != null) {
+                outcome.setStatus("UNMATCHED");
+                outcome.setReason(problem);
+                result.setUnmatched(result.getUnmatched() + 1);
+                continue;
+            }
+            claimed.add(payment.getId());
+            outcome.setFeePaymentId(payment.getId());
+            matches.add(new Match(row, payment, outcome));
+        }
+    
+        if (!matches.isEmpty()) {
+            apply(matches, result);
+        }
+        logger.info("Ingested settlement {}: {} rows, {} applied, {} duplicates, {} unmatched", request.getSource(),
+                result.getReceived(), result.getApplied(), result.getDuplicates(), result.getUnmatched());
+        return result;
+    }
+    
+    private void apply(List<Match> matches, PaymentIngestionResult result) {
+        List<String> receipts = receiptNumberAllocator.next(matches.size());
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < matches.size(); i++) {
+            matches.get(i).outcome().setReceiptNumber(receipts.get(i));
+        }
+    
+        int[][] counts = jdbcTemplate.batchUpdate(MARK_PAID_SQL, matches, JDBC_BATCH_SIZE, (ps, match) -> {
+            SettlementRow row = match.row();
+            ps.setObject(1, row.getPaymentDate() != null ? row.getPaymentDate() : today);
+            ps.setString(2, row.getPaymentMethod());
+            ps.setString(3, row.getTransactionId());
+            ps.setString(4, match.outcome().getReceiptNumber());
+            ps.setObject(5, now);
+            ps.setLong(6, match.payment().getId());
+        });
+    
+        Map<Long, FeeLedgerService.Contribution> ledgerDeltas = new HashMap<>();
+        Map<FeeRollupService.Bucket, FeeRollupService.Totals> rollupDeltas = new HashMap<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Match match = matches.get(index++);
+                PaymentIngestionResult.Outcome outcome = match.outcome();
+                if (count == 0) {
+                    // Paid by someone else since the candidates were loaded
+                    outcome.setStatus("UNMATCHED");
+                    outcome.setReason("Fee payment is already paid");
+                    outcome.setReceiptNumber(null);
+                    result.setUnmatched(result.getUnmatched() + 1);
+                    continue;
+                }
+                outcome.setStatus("APPLIED");
+                result.setApplied(result.getApplied() + 1);
+                FeePayment payment = match.payment();
+                FeeLedgerService.Contribution before = FeeLedgerService.contributionOf(payment);
+                FeeLedgerService.Contribution after = new FeeLedgerService.Contribution(
+                        before.paid() + before.pending() + before.overdue(), 0, 0, before.lateFees());
+                ledgerDeltas.merge(payment.getStudentId(), after.minus(before), FeeLedgerService.Contribution::plus);
+                FeeRollupService.addChange(rollupDeltas, FeeRollupService.shareOf(payment), FeeRollupService.paidShareOf(
+                        payment, match.row().getPaymentDate() != null ? match.row().getPaymentDate() : today,
+                        match.row().getPaymentMethod()));
+            }
+        }
+        feeLedgerService.applyAll(ledgerDeltas);
+        feeRollupService.applyAll(rollupDeltas);
+        if (result.getApplied() > 0) {
+            searchResultCache.invalidate(SearchResultCache.Region.FEE);
+        }
+    }
+    
+    private Set<String> existingTransactionIds(List<SettlementRow> rows) {
+        List<String> transactionIds = rows.stream().map(SettlementRow::getTransactionId).distinct().toList();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < transactionIds.size(); from += IN_CLAUSE_SIZE) {
+            existing.addAll(feePaymentRepository.findExistingTransactionIds(
+                    transactionIds.subList(from, Math.min(from + IN_CLAUSE_SIZE, transactionIds.size()))));
+        }
+        return existing;
+    }
+    
+    private static long cents(Double amount) {
+        return amount == null ? Long.MIN_VALUE : Math.round(amount * 100);
+    }
+}
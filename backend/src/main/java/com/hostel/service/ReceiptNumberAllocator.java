@@ -0,0 +1,82 @@
+package com.hostel.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hands out receipt numbers from the receipt_numbers database sequence. The sequence steps
+ * by a whole block, so one nextval reserves a block of values that is then served from
+ * memory, and numbers never repeat across threads or instances. nextval runs on the
+ * caller's connection and is never rolled back. Values left in a block at shutdown are
+ * skipped.
+ */
+@Component
+public class ReceiptNumberAllocator {
+    private static final Logger logger = LoggerFactory.getLogger(ReceiptNumberAllocator.class);
+    
+    private static final String SEQUENCE = "receipt_numbers";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final int configuredBlockSize;
+    
+    // The sequence's own increment, which wins over the configured size once it exists
+    private int blockSize;
+    
+    // Guarded by this: the next value to hand out and the end of the reserved block
+    private long next;
+    private long limit;
+    
+    public ReceiptNumberAllocator(JdbcTemplate jdbcTemplate,
+                                  @Value("${fees.receipt.block-size:100}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.configuredBlockSize = blockSize;
+    }
+    
+    @PostConstruct
+    public void createSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE + " START WITH 1 INCREMENT BY " + configuredBlockSize);
+        blockSize = jdbcTemplate.queryForObject(
+                "SELECT CAST(increment AS BIGINT) FROM information_schema.sequences WHERE UPPER(sequence_name) = ?",
+                Long.class, SEQUENCE.toUpperCase(Locale.ROOT)).intValue();
+        if (blockSize != configuredBlockSize) {
+            logger.warn("Sequence {} steps by {}, which is used instead of the configured block size {}",
+                    SEQUENCE, blockSize, configuredBlockSize);
+        }
+    }
+    
+    public synchronized String next() {
+        if (next >= limit) {
+            reserve();
+        }
+        return format(next++);
+    }
+    
+    public synchronized List<String> next(int count) {
+        List<String> numbers = new ArrayList<>(count);
+        while (numbers.size() < count) {
+            if (next >= limit) {
+                reserve();
+            }
+            numbers.add(format(next++));
+        }
+        return numbers;
+    }
+    
+    private void reserve() {
+        next = jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE + "')", Long.class);
+        limit = next + blockSize;
+    }
+    
+    // Two-part format, so it can never equal the older single-part RCP-XXXXXXXX receipts
+    private static String format(long value) {
+        return String.format("RCP-%04d-%06d", value / 1_000_000, value % 1_000_000);
+    }
+}
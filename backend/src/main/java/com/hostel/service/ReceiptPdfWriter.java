@@ -0,0 +1,81 @@
+package com.hostel.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal single-page PDF writer for receipts: text in the standard Helvetica fonts and
+ * straight rules on an A4 page, with no embedded fonts or images. Text is written in
+ * WinAnsi encoding; characters outside Latin-1 are replaced with '?'. The output has no
+ * timestamps, so the same content always produces the same bytes.
+ */
+final class ReceiptPdfWriter {
+    
+    static final float PAGE_WIDTH = 595;
+    static final float PAGE_HEIGHT = 842;
+    
+    private final StringBuilder content = new StringBuilder();
+    
+    ReceiptPdfWriter text(float x, float y, float size, boolean bold, String text) {
+        content.append(String.format(Locale.ROOT, "BT /%s %.1f Tf %.1f %.1f Td (%s) Tj ET\n",
+                bold ? "F2" : "F1", size, x, y, escape(text)));
+        return this;
+    }
+    
+    ReceiptPdfWriter rule(float x1, float y, float x2) {
+        content.append(String.format(Locale.ROOT, "0.5 w %.1f %.1f m %.1f %.1f l S\n", x1, y, x2, y));
+        return this;
+    }
+    
+    byte[] toBytes() {
+        byte[] stream = content.toString().getBytes(StandardCharsets.ISO_8859_1);
+        List<String> objects = List.of(
+                "<< /Type /Catalog /Pages 2 0 R >>",
+                "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+                String.format(Locale.ROOT, "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 %.0f %.0f] " +
+                        "/Resources << /Font << /F1 4 0 R /F2 5 0 R >> >> /Contents 6 0 R >>", PAGE_WIDTH, PAGE_HEIGHT),
+                "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>",
+                "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+    
+        ByteArrayOutputStream out = new ByteArrayOutputStream(stream.length + 1024);
+        List<Integer> offsets = new ArrayList<>();
+        write(out, "%PDF-1.4\n");
+        for (int i = 0; i < objects.size(); i++) {
+            offsets.add(out.size());
+            write(out, (i + 1) + " 0 obj\n" + objects.get(i) + "\nendobj\n");
+        }
+        offsets.add(out.size());
+        write(out, (objects.size() + 1) + " 0 obj\n<< /Length " + stream.length + " >>\nstream\n");
+        out.writeBytes(stream);
+        write(out, "\nendstream\nendobj\n");
+    
+        int xref = out.size();
+        StringBuilder table = new StringBuilder("xref\n0 " + (offsets.size() + 1) + "\n0000000000 65535 f \n");
+        offsets.forEach(offset -> table.append(String.format("%010d 00000 n \n", offset)));
+        table.append("trailer\n<< /Size ").append(offsets.size() + 1).append(" /Root 1 0 R >>\n")
+                .append("startxref\n").append(xref).append("\n%%EOF\n");
+        write(out, table.toString());
+        return out.toByteArray();
+    }
+    
+    private static void write(ByteArrayOutputStream out, String text) {
+        out.writeBytes(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+    
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == '(' || c == ')' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 32 || c > 255) {
+                escaped.append('?');
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
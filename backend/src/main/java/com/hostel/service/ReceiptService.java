@@ -0,0 +1,246 @@
+package com.hostel.service;
+
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.exception.ResourceNotFoundException;
+import com.hostel.model.FeePayment;
+import com.hostel.repository.FeePaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PDF receipts for paid fee payments. Receipts are rendered on a small bounded pool,
+ * never on the request thread, and stored on disk under the SHA-256 of their content,
+ * which doubles as the ETag. The digest of each rendered payment is remembered until the
+ * payment changes, so a repeat download is one file read and a revalidation none. Writers
+ * that change payments outside JPA evict them through {@link #evictStudents}.
+ */
+@Service
+public class ReceiptService {
+    private static final Logger logger = LoggerFactory.getLogger(ReceiptService.class);
+    
+    // Printed on each receipt to tell layouts apart
+    private static final int TEMPLATE_VERSION = 1;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy", Locale.ENGLISH);
+    
+    /**
+     * A rendered receipt: its content digest, the file holding it and a download name.
+     */
+    public record Receipt(String etag, Path file, String fileName) {}
+    
+    private record Rendered(Receipt receipt, Long studentId) {}
+    
+    private final FeePaymentRepository feePaymentRepository;
+    private final ExecutorService receiptExecutor;
+    private final Path storageDir;
+    private final String issuer;
+    private final int maxEntries;
+    
+    private final Map<Long, Rendered> rendered;
+    private final Map<Long, CompletableFuture<Receipt>> inFlight = new ConcurrentHashMap<>();
+    // Bumped on every eviction, so a render that read a payment before it changed is not cached
+    private final AtomicLong evictions = new AtomicLong();
+    
+    public ReceiptService(FeePaymentRepository feePaymentRepository,
+                          @Qualifier("receiptExecutor") ExecutorService receiptExecutor,
+                          @Value("${receipts.storage-dir:data/receipts}") String storageDir,
+                          @Value("${receipts.cache.max-entries:10000}") int maxEntries,
+                          @Value("${spring.application.name:Hostel Management System}") String issuer) {
+        this.feePaymentRepository = feePaymentRepository;
+        this.receiptExecutor = receiptExecutor;
+        this.storageDir = Paths.get(storageDir).toAbsolutePath();
+        this.maxEntries = maxEntries;
+        this.issuer = issuer;
+        this.rendered = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Rendered> eldest) {
+                return size() > ReceiptService.this.maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * The stored receipt of a payment, if it has been rendered since the payment last
+     * changed and the file is still there.
+     */
+    public Optional<Receipt> findRendered(Long feePaymentId) {
+        Receipt receipt;
+        synchronized (rendered) {
+            Rendered entry = rendered.get(feePaymentId);
+            receipt = entry != null ? entry.receipt() : null;
+        }
+        return receipt != null && Files.isRegularFile(receipt.file()) ? Optional.of(receipt) : Optional.empty();
+    }
+    
+    /**
+     * Renders the receipt of a payment on the receipt pool. Concurrent calls for the same
+     * payment share one render. Throws {@link RejectedExecutionException} when the pool
+     * and its queue are full.
+     */
+    public CompletableFuture<Receipt> render(Long feePaymentId) {
+        CompletableFuture<Receipt> future = new CompletableFuture<>();
+        CompletableFuture<Receipt> existing = inFlight.putIfAbsent(feePaymentId, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            receiptExecutor.execute(() -> {
+                try {
+                    future.complete(renderNow(feePaymentId));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(feePaymentId, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(feePaymentId, future);
+            throw e;
+        }
+        return future;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.entity() instanceof FeePayment payment)) {
+            return;
+        }
+        evictions.incrementAndGet();
+        synchronized (rendered) {
+            rendered.remove(payment.getId());
+        }
+    }
+    
+    /**
+     * Forgets the receipts of every payment of the given students. Call after the change
+     * commits.
+     */
+    public void evictStudents(Collection<Long> studentIds) {
+        evictions.incrementAndGet();
+        synchronized (rendered) {
+            rendered.values().removeIf(entry -> studentIds.contains(entry.studentId()));
+        }
+    }
+    
+    private Receipt renderNow(Long feePaymentId) {
+        long evictionsBefore = evictions.get();
+        FeePayment payment = feePaymentRepository.findById(feePaymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Fee payment not found with id: " + feePaymentId));
+        if (!"PAID".equals(payment.getStatus())) {
+            throw new IllegalStateException("Receipts are only issued for paid fees");
+        }
+    
+        byte[] pdf = layout(payment).toBytes();
+        String digest = sha256(pdf);
+        Path file = storageDir.resolve(digest.substring(0, 2)).resolve(digest + ".pdf");
+        try {
+            if (!Files.isRegularFile(file)) {
+                write(file, pdf);
+                logger.debug("Rendered receipt for fee payment {} to {}", feePaymentId, file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store receipt for fee payment " + feePaymentId, e);
+        }
+    
+        String name = payment.getReceiptNumber() != null ? payment.getReceiptNumber() : "receipt-" + feePaymentId;
+        Receipt receipt = new Receipt(digest, file, name + ".pdf");
+        synchronized (rendered) {
+            if (evictions.get() == evictionsBefore) {
+                rendered.put(feePaymentId, new Rendered(receipt, payment.getStudentId()));
+            }
+        }
+        return receipt;
+    }
+    
+    private ReceiptPdfWriter layout(FeePayment payment) {
+        float left = 60;
+        float right = ReceiptPdfWriter.PAGE_WIDTH - 60;
+        float y = ReceiptPdfWriter.PAGE_HEIGHT - 80;
+        ReceiptPdfWriter pdf = new ReceiptPdfWriter()
+                .text(left, y, 18, true, issuer)
+                .text(left, y - 24, 13, false, "Fee Payment Receipt");
+        y -= 40;
+        pdf.rule(left, y, right);
+        y -= 30;
+    
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Receipt number", value(payment.getReceiptNumber())});
+        rows.add(new String[]{"Payment date", payment.getPaymentDate() != null ? payment.getPaymentDate().format(DATE_FORMAT) : "-"});
+        rows.add(new String[]{"Student", value(payment.getStudentName()) + " (ID " + payment.getStudentId() + ")"});
+        rows.add(new String[]{"Fee", value(payment.getFeeTypeName())});
+        if (payment.getSemester() != null || payment.getAcademicYear() != null) {
+            rows.add(new String[]{"Term", String.join(" ", Objects.toString(payment.getSemester(), ""),
+                    Objects.toString(payment.getAcademicYear(), "")).trim()});
+        }
+        rows.add(new String[]{"Payment method", value(payment.getPaymentMethod())});
+        rows.add(new String[]{"Transaction ID", value(payment.getTransactionId())});
+        for (String[] row : rows) {
+            pdf.text(left, y, 11, true, row[0]).text(left + 150, y, 11, false, row[1]);
+            y -= 20;
+        }
+    
+        y -= 10;
+        pdf.rule(left, y, right);
+        y -= 25;
+        pdf.text(left, y, 11, false, "Amount").text(right - 120, y, 11, false, amount(payment.getAmount()));
+        y -= 20;
+        pdf.text(left, y, 11, false, "Late fee").text(right - 120, y, 11, false, amount(payment.getLateFee()));
+        y -= 25;
+        pdf.text(left, y, 12, true, "Total paid").text(right - 120, y, 12, true, amount(payment.getTotalAmount()));
+        y -= 15;
+        pdf.rule(left, y, right);
+        y -= 30;
+        return pdf.text(left, y, 9, false, "Computer generated receipt (template v" + TEMPLATE_VERSION + "); no signature required.");
+    }
+    
+    private static String value(String value) {
+        return value == null || value.isBlank() ? "-" : value;
+    }
+    
+    private static String amount(Double amount) {
+        return String.format(Locale.ENGLISH, "%,.2f", amount == null ? 0.0 : amount);
+    }
+    
+    private static void write(Path file, byte[] bytes) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), "receipt-", ".tmp");
+        try {
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.hostel.service;
+
+import com.hostel.dto.RollCallRequest;
+import com.hostel.dto.RollCallResult;
+import com.hostel.model.Attendance;
+import com.hostel.repository.AttendanceRepository;
+import com.hostel.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Records a whole roll call for one date in one request. Students and the day's existing
+ * attendance rows are each resolved with one IN query per thousand students, then rows
+ * are written in batches: an insert for students without a row, an update for those whose
+ * status or remarks changed. A row another writer creates in between, such as a check-in,
+ * is updated like any existing row. Re-sending the same roll call changes nothing.
+ */
+@Service
+@RequiredArgsConstructor
+public class RollCallService {
+    private static final Logger logger = LoggerFactory.getLogger(RollCallService.class);
+    
+    public static final int MAX_ROLL_CALL_ENTRIES = 5000;
+    private static final int JDBC_BATCH_SIZE = 500;
+    private static final int IN_CLAUSE_SIZE = 1000;
+    private static final Set<String> STATUSES = Set.of("PRESENT", "ABSENT", "LATE", "ON_LEAVE");
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO attendance (student_id, student_name, date, status, remarks, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    
+    // The no-op update locks a conflicting row and makes RETURNING report it unchanged
+    private static final String UPSERT_SQL_PREFIX =
+            "INSERT INTO attendance (student_id, student_name, date, status, remarks, created_at) VALUES ";
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_SQL_SUFFIX =
+            " ON CONFLICT (student_id, date) DO UPDATE SET student_name = attendance.student_name " +
+            "RETURNING id, student_id, status, remarks, (xmax = 0) AS inserted";
+    
+    private static final String UPDATE_SQL = "UPDATE attendance SET status = ?, remarks = ? WHERE id = ?";
+    
+    private final AttendanceRepository attendanceRepository;
+    private final StudentRepository studentRepository;
+    private final AttendanceCounterService attendanceCounterService;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+    
+    private record Write(RollCallRequest.Entry entry, String status, String studentName, Attendance existing,
+                         RollCallResult.Outcome outcome) {}
+    
+    private record Inserted(Attendance row, boolean created) {}
+    
+    @Transactional
+    public RollCallResult record(RollCallRequest request) {
+        List<RollCallRequest.Entry> entries = request.getEntries();
+        if (entries.size() > MAX_ROLL_CALL_ENTRIES) {
+            throw new IllegalArgumentException("At most " + MAX_ROLL_CALL_ENTRIES + " entries can be recorded at once");
+        }
+        LocalDate date = request.getDate();
+        RollCallResult result = new RollCallResult();
+        result.setDate(date);
+        result.setReceived(entries.size());
+    
+        List<Long> studentIds = entries.stream().map(RollCallRequest.Entry::getStudentId).distinct().toList();
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Attendance> existing = new HashMap<>();
+        for (List<Long> chunk : chunks(studentIds)) {
+            studentRepository.findIdAndNameByIdIn(chunk).forEach(row -> names.put((Long) row[0], (String) row[1]));
+            attendanceRepository.findByDateAndStudentIdIn(date, chunk).forEach(row -> existing.put(row.getStudentId(), row));
+        }
+    
+        Set<Long> seen = new HashSet<>();
+        List<Write> inserts = new ArrayList<>();
+        List<Write> updates = new ArrayList<>();
+        for (RollCallRequest.Entry entry : entries) {
+            RollCallResult.Outcome outcome = new RollCallResult.Outcome();
+            outcome.setStudentId(entry.getStudentId());
+            result.getOutcomes().add(outcome);
+    
+            String status = entry.getStatus().trim().toUpperCase(Locale.ROOT);
+            String problem = null;
+            if (!seen.add(entry.getStudentId())) {
+                problem = "Student appears more than once in the roll call";
+            } else if (!names.containsKey(entry.getStudentId())) {
+                problem = "Student not found";
+            } else if (!STATUSES.contains(status)) {
+                problem = "Status must be one of " + new TreeSet<>(STATUSES);
+            }
+            if (problem != null) {
+                outcome.setResult("REJECTED");
+                outcome.setReason(problem);
+                result.setRejected(result.getRejected() + 1);
+                continue;
+            }
+            outcome.setStatus(status);
+    
+            Attendance current = existing.get(entry.getStudentId());
+            Write write = new Write(entry, status, names.get(entry.getStudentId()), current, outcome);
+            if (current == null) {
+                inserts.add(write);
+            } else if (status.equals(current.getStatus()) && Objects.equals(entry.getRemarks(), current.getRemarks())) {
+                outcome.setResult("UNCHANGED");
+                outcome.setAttendanceId(current.getId());
+                result.setUnchanged(result.getUnchanged() + 1);
+            } else {
+                updates.add(write);
+            }
+        }
+    
+        // Rows a concurrent writer created since the read above are handled as updates
+        Map<Long, Inserted> inserted = insert(date, inserts);
+        Map<AttendanceCounterService.MonthKey, AttendanceCounterService.Counts> counterDeltas = new HashMap<>();
+        for (Write write : inserts) {
+            Inserted insert = inserted.get(write.entry().getStudentId());
+            Attendance row = insert.row();
+            if (insert.created()) {
+                write.outcome().setResult("CREATED");
+                write.outcome().setAttendanceId(row.getId());
+                result.setCreated(result.getCreated() + 1);
+                AttendanceCounterService.addChange(counterDeltas, null,
+                        new AttendanceCounterService.Mark(write.entry().getStudentId(), date, write.status()));
+            } else if (write.status().equals(row.getStatus()) && Objects.equals(write.entry().getRemarks(), row.getRemarks())) {
+                write.outcome().setResult("UNCHANGED");
+                write.outcome().setAttendanceId(row.getId());
+                result.setUnchanged(result.getUnchanged() + 1);
+            } else {
+                updates.add(new Write(write.entry(), write.status(), write.studentName(), row, write.outcome()));
+            }
+        }
+    
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, JDBC_BATCH_SIZE, (ps, write) -> {
+            ps.setString(1, write.status());
+            ps.setString(2, write.entry().getRemarks());
+            ps.setLong(3, write.existing().getId());
+        });
+        for (Write write : updates) {
+            AttendanceCounterService.addChange(counterDeltas, AttendanceCounterService.Mark.of(write.existing()),
+                    new AttendanceCounterService.Mark(write.entry().getStudentId(), date, write.status()));
+            write.outcome().setResult("UPDATED");
+            write.outcome().setAttendanceId(write.existing().getId());
+        }
+        attendanceCounterService.applyAll(counterDeltas);
+        result.setUpdated(updates.size());
+    
+        logger.info("Roll call for {}: {} entries, {} created, {} updated, {} unchanged, {} rejected", date,
+                result.getReceived(), result.getCreated(), result.getUpdated(), result.getUnchanged(), result.getRejected());
+        return result;
+    }
+    
+    /**
+     * Inserts a row for each write and returns the rows by student. A row that already
+     * existed carries its current status and remarks. On PostgreSQL each chunk is one INSERT ... ON CONFLICT DO UPDATE, which
+     * locks and returns a row another writer created since the day's rows were read
+     * instead of failing the batch. Other databases insert in JDBC batches and read the
+     * generated IDs back.
+     */
+    private Map<Long, Inserted> insert(LocalDate date, List<Write> inserts) {
+        Map<Long, Inserted> rows = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        if (isPostgres()) {
+            for (int from = 0; from < inserts.size(); from += JDBC_BATCH_SIZE) {
+                List<Write> chunk = inserts.subList(from, Math.min(from + JDBC_BATCH_SIZE, inserts.size()));
+                List<Object> args = new ArrayList<>();
+                for (Write write : chunk) {
+                    args.addAll(Arrays.asList(write.entry().getStudentId(), write.studentName(), date, write.status(),
+                            write.entry().getRemarks(), now));
+                }
+                jdbcTemplate.query(UPSERT_SQL_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), UPSERT_ROW)) +
+                        UPSERT_SQL_SUFFIX, rs -> {
+                    Attendance row = new Attendance();
+                    row.setId(rs.getLong("id"));
+                    row.setStudentId(rs.getLong("student_id"));
+                    row.setDate(date);
+                    row.setStatus(rs.getString("status"));
+                    row.setRemarks(rs.getString("remarks"));
+                    rows.put(row.getStudentId(), new Inserted(row, rs.getBoolean("inserted")));
+                }, args.toArray());
+            }
+            return rows;
+        }
+    
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, JDBC_BATCH_SIZE, (ps, write) -> {
+            ps.setLong(1, write.entry().getStudentId());
+            ps.setString(2, write.studentName());
+            ps.setObject(3, date);
+            ps.setString(4, write.status());
+            ps.setString(5, write.entry().getRemarks());
+            ps.setObject(6, now);
+        });
+        // Read back the generated IDs of the new rows
+        List<Long> studentIds = inserts.stream().map(write -> write.entry().getStudentId()).toList();
+        for (List<Long> chunk : chunks(studentIds)) {
+            attendanceRepository.findByDateAndStudentIdIn(date, chunk)
+                    .forEach(row -> rows.put(row.getStudentId(), new Inserted(row, true)));
+        }
+        return rows;
+    }
+    
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+    
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + IN_CLAUSE_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,281 @@
+package com.hostel.service;
+
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.exception.DuplicateResourceException;
+import com.hostel.model.Bed;
+import com.hostel.model.Room;
+import com.hostel.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Bulk room onboarding. Rooms and their beds are written with JDBC batches in one
+ * transaction instead of one insert round trip per bed.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomImportService {
+    
+    public static final int MAX_IMPORT_ROOMS = 5000;
+    private static final int BATCH_SIZE = 500;
+    private static final List<String> CSV_COLUMNS = List.of("roomNumber", "roomType", "capacity", "floor", "block",
+            "rentAmount", "hasAc", "hasAttachedBathroom", "description");
+    
+    private final RoomRepository roomRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Transactional
+    public Map<String, Object> importRooms(List<Room> rooms) {
+        validate(rooms);
+        LocalDateTime now = LocalDateTime.now();
+        
+        for (int from = 0; from < rooms.size(); from += BATCH_SIZE) {
+            insertRooms(rooms.subList(from, Math.min(from + BATCH_SIZE, rooms.size())), now);
+        }
+        
+        List<Bed> beds = new ArrayList<>();
+        for (Room room : rooms) {
+            for (int i = 1; i <= room.getCapacity(); i++) {
+                Bed bed = new Bed();
+                bed.setRoomId(room.getId());
+                bed.setBedNumber("B" + i);
+                bed.setIsOccupied(false);
+                bed.setStatus("AVAILABLE");
+                bed.setCreatedAt(now);
+                bed.setUpdatedAt(now);
+                beds.add(bed);
+            }
+        }
+        for (int from = 0; from < beds.size(); from += BATCH_SIZE) {
+            insertBeds(beds.subList(from, Math.min(from + BATCH_SIZE, beds.size())));
+        }
+        
+        // JDBC writes bypass the entity listener, so announce the new rows explicitly
+        rooms.forEach(room -> eventPublisher.publishEvent(new EntityChangedEvent(room, EntityChangedEvent.ChangeType.SAVED)));
+        beds.forEach(bed -> eventPublisher.publishEvent(new EntityChangedEvent(bed, EntityChangedEvent.ChangeType.SAVED)));
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("roomsCreated", rooms.size());
+        result.put("bedsCreated", beds.size());
+        return result;
+    }
+    
+    @Transactional
+    public Map<String, Object> importRoomsCsv(InputStream csv) throws IOException {
+        return importRooms(parseCsv(csv));
+    }
+    
+    private void validate(List<Room> rooms) {
+        if (rooms.isEmpty()) {
+            throw new IllegalArgumentException("No rooms to import");
+        }
+        if (rooms.size() > MAX_IMPORT_ROOMS) {
+            throw new IllegalArgumentException("At most " + MAX_IMPORT_ROOMS + " rooms can be imported at once");
+        }
+        
+        Set<String> roomNumbers = new HashSet<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            if (isBlank(room.getRoomNumber()) || isBlank(room.getRoomType())
+                    || room.getCapacity() == null || room.getCapacity() < 1) {
+                throw new IllegalArgumentException("Room " + (i + 1) + ": room number, room type and a positive capacity are required");
+            }
+            if (!roomNumbers.add(room.getRoomNumber())) {
+                throw new DuplicateResourceException("Room number " + room.getRoomNumber() + " appears more than once in the import");
+            }
+        }
+        
+        List<Room> existing = roomRepository.findByRoomNumberIn(roomNumbers);
+        if (!existing.isEmpty()) {
+            throw new DuplicateResourceException("Rooms already exist: " + existing.stream()
+                    .map(Room::getRoomNumber).sorted().limit(10).toList());
+        }
+    }
+    
+    private void insertRooms(List<Room> rooms, LocalDateTime now) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(
+                        "INSERT INTO rooms (room_number, room_type, capacity, floor, block, current_occupancy, status, " +
+                                "rent_amount, has_ac, has_attached_bathroom, description, created_at, updated_at) " +
+                                "VALUES (?, ?, ?, ?, ?, 0, 'AVAILABLE', ?, ?, ?, ?, ?, ?)",
+                        new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Room room = rooms.get(i);
+                        room.setCurrentOccupancy(0);
+                        room.setStatus("AVAILABLE");
+                        room.setHasAc(Boolean.TRUE.equals(room.getHasAc()));
+                        room.setHasAttachedBathroom(Boolean.TRUE.equals(room.getHasAttachedBathroom()));
+                        room.setCreatedAt(now);
+                        room.setUpdatedAt(now);
+                        
+                        ps.setString(1, room.getRoomNumber());
+                        ps.setString(2, room.getRoomType());
+                        ps.setInt(3, room.getCapacity());
+                        ps.setObject(4, room.getFloor(), Types.INTEGER);
+                        ps.setString(5, room.getBlock());
+                        ps.setObject(6, room.getRentAmount(), Types.DOUBLE);
+                        ps.setBoolean(7, room.getHasAc());
+                        ps.setBoolean(8, room.getHasAttachedBathroom());
+                        ps.setString(9, room.getDescription());
+                        ps.setTimestamp(10, Timestamp.valueOf(now));
+                        ps.setTimestamp(11, Timestamp.valueOf(now));
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return rooms.size();
+                    }
+                },
+                keys);
+        
+        // Generated keys come back in statement order
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < rooms.size(); i++) {
+            rooms.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+    
+    private void insertBeds(List<Bed> beds) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(
+                        "INSERT INTO beds (room_id, bed_number, is_occupied, status, created_at, updated_at) " +
+                                "VALUES (?, ?, false, 'AVAILABLE', ?, ?)",
+                        new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Bed bed = beds.get(i);
+                        ps.setLong(1, bed.getRoomId());
+                        ps.setString(2, bed.getBedNumber());
+                        ps.setTimestamp(3, Timestamp.valueOf(bed.getCreatedAt()));
+                        ps.setTimestamp(4, Timestamp.valueOf(bed.getUpdatedAt()));
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return beds.size();
+                    }
+                },
+                keys);
+        
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < beds.size(); i++) {
+            beds.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+    
+    // ============ CSV PARSING ============
+    
+    private List<Room> parseCsv(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        List<String> header = splitCsvLine(headerLine.replace("\uFEFF", ""));
+        Map<String, Integer> columnIndex = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columnIndex.put(header.get(i).trim(), i);
+        }
+        for (String required : CSV_COLUMNS.subList(0, 3)) {
+            if (!columnIndex.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+        
+        List<Room> rooms = new ArrayList<>();
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> cells = splitCsvLine(line);
+            try {
+                Room room = new Room();
+                room.setRoomNumber(cell(cells, columnIndex, "roomNumber"));
+                room.setRoomType(cell(cells, columnIndex, "roomType"));
+                room.setCapacity(parseInteger(cell(cells, columnIndex, "capacity")));
+                room.setFloor(parseInteger(cell(cells, columnIndex, "floor")));
+                room.setBlock(cell(cells, columnIndex, "block"));
+                String rent = cell(cells, columnIndex, "rentAmount");
+                room.setRentAmount(rent == null ? null : Double.valueOf(rent));
+                room.setHasAc(Boolean.parseBoolean(cell(cells, columnIndex, "hasAc")));
+                room.setHasAttachedBathroom(Boolean.parseBoolean(cell(cells, columnIndex, "hasAttachedBathroom")));
+                room.setDescription(cell(cells, columnIndex, "description"));
+                rooms.add(room);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("CSV line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return rooms;
+    }
+    
+    private static String cell(List<String> cells, Map<String, Integer> columnIndex, String column) {
+        Integer index = columnIndex.get(column);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static Integer parseInteger(String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+    
+    // RFC 4180 fields: commas inside double quotes, "" for a literal quote
+    private static List<String> splitCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString());
+        return cells;
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,16 +1,32 @@
 package com.hostel.service;
 
+import com.hostel.allocation.BedAllocationPlanner;
+import com.hostel.allocation.BedAvailabilityResolver;
+import com.hostel.allocation.OccupancyMap;
+import com.hostel.allocation.RoomChangePlanner;
+import com.hostel.dto.BatchAllocationRequest;
+import com.hostel.dto.BatchAllocationRequest.StudentPreference;
+import com.hostel.dto.BatchAllocationResult;
+import com.hostel.dto.KeysetPage;
+import com.hostel.dto.RoomChangeExecutionResult;
+import com.hostel.event.EntityChangedEvent;
+import com.hostel.exception.ConcurrentUpdateException;
 import com.hostel.exception.DuplicateResourceException;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.*;
 import com.hostel.repository.*;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +38,17 @@ public class RoomService {
     private final RoomMaintenanceRepository roomMaintenanceRepository;
     private final RoomChangeRequestRepository roomChangeRequestRepository;
     private final StudentRepository studentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OccupancyMap occupancyMap;
+    private final BedAvailabilityResolver availabilityResolver;
+    private final NamePropagationService namePropagationService;
+    
+    private static final int JDBC_BATCH_SIZE = 500;
+    private static final int IN_CLAUSE_SIZE = 1000;
+    private static final int MAX_BED_CLAIM_ATTEMPTS = 5;
+    private static final Set<String> UNALLOCATABLE_ROOM_STATUSES = Set.of("MAINTENANCE", "UNAVAILABLE");
     
     // ============ ROOM OPERATIONS ============
     
@@ -51,6 +78,10 @@ public class RoomService {
         return roomRepository.findAll();
     }
     
+    public KeysetPage<Room> getRoomsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, roomRepository::findByIdGreaterThanOrderByIdAsc, Room::getId);
+    }
+    
     public Room getRoomById(Long id) {
         return roomRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + id));
@@ -86,6 +117,10 @@ public class RoomService {
             throw new DuplicateResourceException("Room with number " + roomDetails.getRoomNumber() + " already exists");
         }
         
+        if (!room.getRoomNumber().equals(roomDetails.getRoomNumber())) {
+            namePropagationService.roomRenumbered(room.getId(), room.getRoomNumber());
+        }
+        
         room.setRoomNumber(roomDetails.getRoomNumber());
         room.setRoomType(roomDetails.getRoomType());
         room.setCapacity(roomDetails.getCapacity());
@@ -124,7 +159,7 @@ public class RoomService {
     }
     
     public List<Bed> getAvailableBedsByRoomId(Long roomId) {
-        return bedRepository.findByRoomIdAndStatus(roomId, "AVAILABLE");
+        return availabilityResolver.filterAvailableBeds(roomId, bedRepository.findByRoomIdAndStatus(roomId, "AVAILABLE"));
     }
     
     public Bed getBedById(Long id) {
@@ -153,19 +188,17 @@ public class RoomService {
                     throw new IllegalStateException("Student already has an active room allocation");
                 });
         
-        // Validate room exists and has capacity
+        // Reserve a place in the room, then claim a specific bed
         Room room = getRoomById(allocation.getRoomId());
-        if (room.getCurrentOccupancy() >= room.getCapacity()) {
+        availabilityResolver.requireAllocatable(room, allocation.getFromDate(), allocation.getToDate());
+        if (roomRepository.claimOccupancy(room.getId(), 1) == 0) {
             throw new IllegalStateException("Room is full");
         }
-        
-        // Find available bed
-        List<Bed> availableBeds = getAvailableBedsByRoomId(allocation.getRoomId());
-        if (availableBeds.isEmpty()) {
-            throw new IllegalStateException("No available beds in the room");
-        }
-        
-        Bed bed = availableBeds.get(0);
+        Bed bed = claimFreeBed(room.getId(), student);
+        entityManager.refresh(room);
+        entityManager.refresh(bed);
+        eventPublisher.publishEvent(new EntityChangedEvent(room, EntityChangedEvent.ChangeType.SAVED));
+        eventPublisher.publishEvent(new EntityChangedEvent(bed, EntityChangedEvent.ChangeType.SAVED));
         
         // Update allocation details
         allocation.setStudentName(student.getName());
@@ -177,22 +210,6 @@ public class RoomService {
             allocation.setFromDate(LocalDate.now());
         }
         
-        // Update bed
-        bed.setIsOccupied(true);
-        bed.setStudentId(student.getId());
-        bed.setStudentName(student.getName());
-        bed.setStatus("OCCUPIED");
-        bedRepository.save(bed);
-        
-        // Update room occupancy
-        room.setCurrentOccupancy(room.getCurrentOccupancy() + 1);
-        if (room.getCurrentOccupancy() >= room.getCapacity()) {
-            room.setStatus("FULL");
-        } else {
-            room.setStatus("OCCUPIED");
-        }
-        roomRepository.save(room);
-        
         // Update student room info
         student.setRoomNumber(room.getRoomNumber());
         studentRepository.save(student);
@@ -200,10 +217,238 @@ public class RoomService {
         return roomAllocationRepository.save(allocation);
     }
     
+    /**
+     * Places many students in one pass: loads a snapshot of free beds once, solves the
+     * assignment in memory and writes everything in a single transaction. Students that
+     * cannot be placed are reported rather than failing the batch.
+     */
+    @Transactional
+    public BatchAllocationResult allocateBatch(BatchAllocationRequest request) {
+        BatchAllocationResult result = new BatchAllocationResult();
+        result.setRequested(request.getStudents().size());
+        
+        Set<Long> requestedIds = new LinkedHashSet<>();
+        List<StudentPreference> candidates = new ArrayList<>();
+        for (StudentPreference preference : request.getStudents()) {
+            if (!requestedIds.add(preference.getStudentId())) {
+                result.getUnplaced().add(new BatchAllocationResult.Unplaced(preference.getStudentId(), "Duplicate entry in batch"));
+            } else {
+                candidates.add(preference);
+            }
+        }
+        
+        Map<Long, Student> students = studentRepository.findAllById(requestedIds).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Set<Long> alreadyAllocated = roomAllocationRepository.findByStudentIdInAndStatus(requestedIds, "ACTIVE").stream()
+                .map(RoomAllocation::getStudentId)
+                .collect(Collectors.toSet());
+        
+        List<StudentPreference> placeable = new ArrayList<>();
+        for (StudentPreference preference : candidates) {
+            if (!students.containsKey(preference.getStudentId())) {
+                result.getUnplaced().add(new BatchAllocationResult.Unplaced(preference.getStudentId(), "Student not found"));
+            } else if (alreadyAllocated.contains(preference.getStudentId())) {
+                result.getUnplaced().add(new BatchAllocationResult.Unplaced(preference.getStudentId(), "Student already has an active room allocation"));
+            } else {
+                placeable.add(preference);
+            }
+        }
+        
+        // Snapshot of free capacity
+        LocalDate fromDate = request.getFromDate() != null ? request.getFromDate() : LocalDate.now();
+        List<Room> rooms = roomRepository.findAll().stream()
+                .filter(room -> !UNALLOCATABLE_ROOM_STATUSES.contains(room.getStatus()))
+                .filter(room -> availabilityResolver.isAllocatable(room.getId(), fromDate, null))
+                .toList();
+        Map<Long, List<Bed>> freeBeds = bedRepository.findByStatus("AVAILABLE").stream()
+                .sorted(Comparator.comparing(Bed::getBedNumber).thenComparing(Bed::getId))
+                .collect(Collectors.groupingBy(Bed::getRoomId));
+        
+        BedAllocationPlanner.Plan plan = new BedAllocationPlanner(rooms, freeBeds).plan(placeable);
+        for (StudentPreference preference : plan.unplaced()) {
+            result.getUnplaced().add(new BatchAllocationResult.Unplaced(preference.getStudentId(), "No available bed matches the preferences"));
+        }
+        
+        // Rooms and beds are written with conditional batch updates below, so they must not
+        // also be flushed from the snapshot. Student updates are flushed as Hibernate JDBC
+        // batches; allocations use identity keys, which Hibernate cannot batch, so they are
+        // inserted directly.
+        rooms.forEach(entityManager::detach);
+        freeBeds.values().forEach(beds -> beds.forEach(entityManager::detach));
+        
+        List<RoomAllocation> allocations = new ArrayList<>();
+        for (BedAllocationPlanner.Assignment assignment : plan.assignments()) {
+            Student student = students.get(assignment.preference().getStudentId());
+            Room room = assignment.room();
+            Bed bed = assignment.bed();
+            
+            student.setRoomNumber(room.getRoomNumber());
+            
+            RoomAllocation allocation = new RoomAllocation();
+            allocation.setStudentId(student.getId());
+            allocation.setStudentName(student.getName());
+            allocation.setRoomId(room.getId());
+            allocation.setRoomNumber(room.getRoomNumber());
+            allocation.setBedId(bed.getId());
+            allocation.setBedNumber(bed.getBedNumber());
+            allocation.setFromDate(fromDate);
+            allocation.setStatus("ACTIVE");
+            allocation.setAllocatedBy(request.getAllocatedBy());
+            allocation.setRemarks(request.getRemarks());
+            allocations.add(allocation);
+            
+            result.getAllocated().add(new BatchAllocationResult.Placement(student.getId(), student.getName(),
+                    room.getId(), room.getRoomNumber(), bed.getId(), bed.getBedNumber()));
+        }
+        // Rooms before beds, as in allocateRoom, so the two paths cannot deadlock
+        claimPlannedOccupancy(allocations);
+        claimPlannedBeds(allocations);
+        insertAllocations(allocations);
+        publishBedChanges(allocations.stream().map(RoomAllocation::getBedId).toList());
+        
+        return result;
+    }
+    
+    private void claimPlannedBeds(List<RoomAllocation> allocations) {
+        LocalDateTime now = LocalDateTime.now();
+        // Ascending bed order, so concurrent batches lock shared beds in the same order
+        List<RoomAllocation> byBed = allocations.stream()
+                .sorted(Comparator.comparing(RoomAllocation::getBedId))
+                .toList();
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE beds SET status = 'OCCUPIED', is_occupied = true, student_id = ?, student_name = ?, updated_at = ? " +
+                        "WHERE id = ? AND status = 'AVAILABLE'",
+                byBed, JDBC_BATCH_SIZE, (ps, allocation) -> {
+                    ps.setLong(1, allocation.getStudentId());
+                    ps.setString(2, allocation.getStudentName());
+                    ps.setObject(3, now);
+                    ps.setLong(4, allocation.getBedId());
+                });
+        requireAllApplied(counts, "A planned bed was taken by a concurrent allocation, please retry the batch");
+    }
+    
+    private void claimPlannedOccupancy(List<RoomAllocation> allocations) {
+        Map<Long, Integer> placedPerRoom = new LinkedHashMap<>();
+        allocations.forEach(allocation -> placedPerRoom.merge(allocation.getRoomId(), 1, Integer::sum));
+        applyOccupancyChanges(placedPerRoom);
+    }
+    
+    /**
+     * Applies signed occupancy changes per room with conditional batch updates that keep
+     * every room within 0..capacity, failing the transaction otherwise. Rooms are updated
+     * in ascending id order, and before any bed, so concurrent writers lock them in the
+     * same order.
+     */
+    private void applyOccupancyChanges(Map<Long, Integer> occupancyChanges) {
+        Map<Long, Integer> changes = new TreeMap<>(occupancyChanges);
+        changes.values().removeIf(change -> change == 0);
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE rooms SET current_occupancy = COALESCE(current_occupancy, 0) + ?, " +
+                        "status = CASE WHEN COALESCE(current_occupancy, 0) + ? <= 0 THEN 'AVAILABLE' " +
+                        "WHEN COALESCE(current_occupancy, 0) + ? >= capacity THEN 'FULL' ELSE 'OCCUPIED' END, " +
+                        "updated_at = ? WHERE id = ? AND COALESCE(current_occupancy, 0) + ? BETWEEN 0 AND capacity",
+                changes.entrySet(), JDBC_BATCH_SIZE, (ps, entry) -> {
+                    ps.setInt(1, entry.getValue());
+                    ps.setInt(2, entry.getValue());
+                    ps.setInt(3, entry.getValue());
+                    ps.setObject(4, now);
+                    ps.setLong(5, entry.getKey());
+                    ps.setInt(6, entry.getValue());
+                });
+        requireAllApplied(counts, "A planned room filled up meanwhile, please retry");
+        
+        // Conditional updates bypass the entity listener, so announce the new state explicitly
+        roomRepository.findAllById(changes.keySet()).forEach(room ->
+                eventPublisher.publishEvent(new EntityChangedEvent(room, EntityChangedEvent.ChangeType.SAVED)));
+    }
+    
+    private void publishBedChanges(Collection<Long> bedIds) {
+        bedRepository.findAllById(bedIds).forEach(bed ->
+                eventPublisher.publishEvent(new EntityChangedEvent(bed, EntityChangedEvent.ChangeType.SAVED)));
+    }
+    
+    private static void requireAllApplied(int[][] counts, String message) {
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Some drivers report SUCCESS_NO_INFO (-2) instead of a row count
+                if (count == 0) {
+                    throw new ConcurrentUpdateException(message);
+                }
+            }
+        }
+    }
+    
+    private void insertAllocations(List<RoomAllocation> allocations) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO room_allocations (student_id, student_name, room_id, room_number, bed_id, bed_number, " +
+                        "from_date, status, allocated_by, remarks, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                allocations, JDBC_BATCH_SIZE, (ps, allocation) -> {
+                    ps.setLong(1, allocation.getStudentId());
+                    ps.setString(2, allocation.getStudentName());
+                    ps.setLong(3, allocation.getRoomId());
+                    ps.setString(4, allocation.getRoomNumber());
+                    ps.setLong(5, allocation.getBedId());
+                    ps.setString(6, allocation.getBedNumber());
+                    ps.setObject(7, allocation.getFromDate());
+                    ps.setString(8, allocation.getStatus());
+                    ps.setString(9, allocation.getAllocatedBy());
+                    ps.setString(10, allocation.getRemarks());
+                    ps.setObject(11, now);
+                    ps.setObject(12, now);
+                });
+    }
+    
+    /**
+     * Claims one of the room's free beds with a conditional update. A concurrent allocation
+     * that wins a bed just makes us move on to the next one, up to a bounded number of tries.
+     */
+    private Bed claimFreeBed(Long roomId, Student student) {
+        int attempts = 0;
+        while (attempts < MAX_BED_CLAIM_ATTEMPTS) {
+            // Maintenance was checked against the stay dates by the caller
+            List<Bed> availableBeds = bedRepository.findByRoomIdAndStatus(roomId, "AVAILABLE");
+            if (availableBeds.isEmpty()) {
+                throw new IllegalStateException("No available beds in the room");
+            }
+            for (Bed bed : availableBeds) {
+                if (attempts++ >= MAX_BED_CLAIM_ATTEMPTS) {
+                    break;
+                }
+                if (bedRepository.claim(bed.getId(), student.getId(), student.getName()) == 1) {
+                    return bed;
+                }
+            }
+        }
+        throw new ConcurrentUpdateException("Could not claim a bed in the room, please retry");
+    }
+    
+    // ============ LIVE OCCUPANCY ============
+    
+    public List<OccupancyMap.RoomVacancy> findVacancies(String block, Integer floor, String roomType,
+                                                        Integer vacancies, Integer minVacancies) {
+        return availabilityResolver.findAvailableRooms(block, floor, roomType, vacancies, minVacancies);
+    }
+    
+    public OccupancyMap.BedState getBedState(Long bedId) {
+        return occupancyMap.findBed(bedId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bed not found with id: " + bedId));
+    }
+    
+    public Map<String, Object> getOccupancySummary() {
+        return occupancyMap.summary();
+    }
+    
     public List<RoomAllocation> getAllAllocations() {
         return roomAllocationRepository.findAll();
     }
     
+    public KeysetPage<RoomAllocation> getAllocationsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, roomAllocationRepository::findByIdGreaterThanOrderByIdAsc, RoomAllocation::getId);
+    }
+    
     public List<RoomAllocation> getAllocationsByStudentId(Long studentId) {
         return roomAllocationRepository.findByStudentId(studentId);
     }
@@ -242,13 +487,10 @@ public class RoomService {
         
         // Update room occupancy
         Room room = getRoomById(allocation.getRoomId());
-        room.setCurrentOccupancy(Math.max(0, room.getCurrentOccupancy() - 1));
-        if (room.getCurrentOccupancy() == 0) {
-            room.setStatus("AVAILABLE");
-        } else {
-            room.setStatus("OCCUPIED");
+        if (roomRepository.releaseOccupancy(room.getId()) == 1) {
+            entityManager.refresh(room);
+            eventPublisher.publishEvent(new EntityChangedEvent(room, EntityChangedEvent.ChangeType.SAVED));
         }
-        roomRepository.save(room);
         
         // Update student
         Student student = studentRepository.findById(allocation.getStudentId())
@@ -272,6 +514,10 @@ public class RoomService {
         return roomMaintenanceRepository.findAll();
     }
     
+    public KeysetPage<RoomMaintenance> getMaintenanceRequestsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, roomMaintenanceRepository::findByIdGreaterThanOrderByIdAsc, RoomMaintenance::getId);
+    }
+    
     public List<RoomMaintenance> getMaintenanceByRoomId(Long roomId) {
         return roomMaintenanceRepository.findByRoomId(roomId);
     }
@@ -290,7 +536,8 @@ public class RoomService {
     }
     
     @Transactional
-    public RoomMaintenance updateMaintenanceStatus(Long id, String status, String assignedTo, String remarks) {
+    public RoomMaintenance updateMaintenanceStatus(Long id, String status, String assignedTo, String remarks,
+                                                   LocalDate expectedCompletionDate) {
         RoomMaintenance maintenance = getMaintenanceById(id);
         maintenance.setStatus(status);
         
@@ -303,6 +550,10 @@ public class RoomService {
             maintenance.setRemarks(remarks);
         }
         
+        if (expectedCompletionDate != null) {
+            maintenance.setExpectedCompletionDate(expectedCompletionDate);
+        }
+        
         if ("COMPLETED".equals(status)) {
             maintenance.setCompletedDate(LocalDateTime.now());
         }
@@ -330,14 +581,11 @@ public class RoomService {
         request.setCurrentRoomNumber(currentRoom.getRoomNumber());
         request.setStatus("PENDING");
         
-        // If requested room is specified, validate it
+        // If requested room is specified, validate it. A full room is fine: executing the
+        // change waits for a bed to free up or resolves it as a swap with another request.
         if (request.getRequestedRoomId() != null) {
             Room requestedRoom = getRoomById(request.getRequestedRoomId());
             request.setRequestedRoomNumber(requestedRoom.getRoomNumber());
-            
-            if (requestedRoom.getCurrentOccupancy() >= requestedRoom.getCapacity()) {
-                throw new IllegalStateException("Requested room is full");
-            }
         }
         
         return roomChangeRequestRepository.save(request);
@@ -347,6 +595,10 @@ public class RoomService {
         return roomChangeRequestRepository.findAll();
     }
     
+    public KeysetPage<RoomChangeRequest> getRoomChangeRequestsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, roomChangeRequestRepository::findByIdGreaterThanOrderByIdAsc, RoomChangeRequest::getId);
+    }
+    
     public List<RoomChangeRequest> getRoomChangeRequestsByStudentId(Long studentId) {
         return roomChangeRequestRepository.findByStudentId(studentId);
     }
@@ -397,4 +649,186 @@ public class RoomService {
         RoomChangeRequest request = getRoomChangeRequestById(id);
         roomChangeRequestRepository.delete(request);
     }
+    
+    // ============ ROOM CHANGE EXECUTION ============
+    
+    /**
+     * Carries out one approved room change: the old bed and allocation are released and
+     * the student is placed in a free bed of the requested room, all in one transaction.
+     */
+    @Transactional
+    public RoomChangeRequest executeRoomChangeRequest(Long id) {
+        RoomChangeRequest request = getRoomChangeRequestById(id);
+        if (!"APPROVED".equals(request.getStatus())) {
+            throw new IllegalStateException("Request is not approved");
+        }
+        RoomChangeExecutionResult result = executeRoomChanges(List.of(request));
+        if (!result.getSkipped().isEmpty()) {
+            throw new IllegalStateException(result.getSkipped().get(0).getReason());
+        }
+        return request;
+    }
+    
+    /**
+     * Carries out every approved room change together. Moves into full rooms wait for
+     * other moves to free a bed, and swaps or rings of students between full rooms are
+     * applied as a unit.
+     */
+    @Transactional
+    public RoomChangeExecutionResult executeApprovedRoomChanges() {
+        return executeRoomChanges(roomChangeRequestRepository.findByStatus("APPROVED"));
+    }
+    
+    private RoomChangeExecutionResult executeRoomChanges(List<RoomChangeRequest> requests) {
+        RoomChangeExecutionResult result = new RoomChangeExecutionResult();
+        List<RoomChangeRequest> ordered = requests.stream()
+                .sorted(Comparator.comparing(RoomChangeRequest::getId))
+                .toList();
+        
+        Set<Long> studentIds = ordered.stream().map(RoomChangeRequest::getStudentId).collect(Collectors.toSet());
+        Map<Long, RoomAllocation> activeAllocations = roomAllocationRepository.findByStudentIdInAndStatus(studentIds, "ACTIVE").stream()
+                .collect(Collectors.toMap(RoomAllocation::getStudentId, Function.identity(), (a, b) -> a));
+        Map<Long, Student> students = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Set<Long> targetRoomIds = ordered.stream()
+                .map(RoomChangeRequest::getRequestedRoomId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Room> targetRooms = roomRepository.findAllById(targetRoomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        
+        Map<Long, RoomChangeRequest> byId = new HashMap<>();
+        List<RoomChangePlanner.MoveRequest> moveRequests = new ArrayList<>();
+        Set<Long> movingStudents = new HashSet<>();
+        for (RoomChangeRequest request : ordered) {
+            RoomAllocation allocation = activeAllocations.get(request.getStudentId());
+            Room target = request.getRequestedRoomId() == null ? null : targetRooms.get(request.getRequestedRoomId());
+            String problem = null;
+            if (request.getRequestedRoomId() == null) {
+                problem = "No requested room";
+            } else if (!movingStudents.add(request.getStudentId())) {
+                problem = "Student has an earlier approved request";
+            } else if (allocation == null || allocation.getBedId() == null
+                    || !allocation.getRoomId().equals(request.getCurrentRoomId())) {
+                problem = "Student has no active bed in the current room";
+            } else if (request.getRequestedRoomId().equals(request.getCurrentRoomId())) {
+                problem = "Student is already in the requested room";
+            } else if (target == null) {
+                problem = "Requested room not found";
+            } else if (UNALLOCATABLE_ROOM_STATUSES.contains(target.getStatus())) {
+                problem = "Requested room is not available";
+            } else if (!availabilityResolver.isAllocatable(target.getId(), null, null)) {
+                problem = "Requested room is under maintenance";
+            }
+            if (problem != null) {
+                result.getSkipped().add(new RoomChangeExecutionResult.Skipped(request.getId(), problem));
+                continue;
+            }
+            byId.put(request.getId(), request);
+            moveRequests.add(new RoomChangePlanner.MoveRequest(request.getId(), allocation.getRoomId(),
+                    allocation.getBedId(), request.getRequestedRoomId()));
+        }
+        
+        // Free beds of the target rooms, capped at each room's remaining capacity
+        Map<Long, List<Long>> freeBeds = new HashMap<>();
+        List<Bed> availableBeds = bedRepository.findByRoomIdInAndStatus(targetRoomIds, "AVAILABLE");
+        availableBeds.stream()
+                .sorted(Comparator.comparing(Bed::getBedNumber).thenComparing(Bed::getId))
+                .forEach(bed -> {
+                    Room room = targetRooms.get(bed.getRoomId());
+                    int spare = room.getCapacity() - (room.getCurrentOccupancy() == null ? 0 : room.getCurrentOccupancy());
+                    List<Long> beds = freeBeds.computeIfAbsent(bed.getRoomId(), id -> new ArrayList<>());
+                    if (beds.size() < spare) {
+                        beds.add(bed.getId());
+                    }
+                });
+        
+        RoomChangePlanner.Plan plan = new RoomChangePlanner(freeBeds).plan(moveRequests);
+        for (RoomChangePlanner.MoveRequest blocked : plan.blocked()) {
+            result.getSkipped().add(new RoomChangeExecutionResult.Skipped(blocked.requestId(), "Requested room is full"));
+        }
+        if (plan.moves().isEmpty()) {
+            return result;
+        }
+        
+        // Rooms and beds are written with conditional statements below, so the snapshot
+        // must not be flushed over them
+        targetRooms.values().forEach(entityManager::detach);
+        availableBeds.forEach(entityManager::detach);
+        
+        // A move lands either on a free bed or on the bed another mover vacates
+        Map<Long, String> bedNumbers = new HashMap<>();
+        availableBeds.forEach(bed -> bedNumbers.put(bed.getId(), bed.getBedNumber()));
+        activeAllocations.values().forEach(allocation -> bedNumbers.put(allocation.getBedId(), allocation.getBedNumber()));
+        
+        LocalDate today = LocalDate.now();
+        List<RoomAllocation> newAllocations = new ArrayList<>();
+        Map<Long, Integer> occupancyChanges = new LinkedHashMap<>();
+        List<Long> vacatedBeds = new ArrayList<>();
+        for (RoomChangePlanner.Move move : plan.moves()) {
+            RoomChangeRequest request = byId.get(move.request().requestId());
+            Student student = students.get(request.getStudentId());
+            RoomAllocation previous = activeAllocations.get(request.getStudentId());
+            Room target = targetRooms.get(request.getRequestedRoomId());
+            
+            previous.setStatus("COMPLETED");
+            previous.setToDate(today);
+            vacatedBeds.add(previous.getBedId());
+            occupancyChanges.merge(previous.getRoomId(), -1, Integer::sum);
+            occupancyChanges.merge(target.getId(), 1, Integer::sum);
+            
+            RoomAllocation allocation = new RoomAllocation();
+            allocation.setStudentId(student.getId());
+            allocation.setStudentName(student.getName());
+            allocation.setRoomId(target.getId());
+            allocation.setRoomNumber(target.getRoomNumber());
+            allocation.setBedId(move.targetBedId());
+            allocation.setBedNumber(bedNumbers.get(move.targetBedId()));
+            allocation.setFromDate(today);
+            allocation.setStatus("ACTIVE");
+            allocation.setAllocatedBy(request.getApprovedBy());
+            allocation.setRemarks("Room change request " + request.getId());
+            newAllocations.add(allocation);
+            
+            student.setRoomNumber(target.getRoomNumber());
+            request.setStatus("COMPLETED");
+            result.getCompleted().add(request.getId());
+        }
+        result.setCyclesResolved(plan.cycles());
+        
+        // Rooms before beds, as in allocateRoom, then every bed involved in ascending id order.
+        // Beds are vacated before the claims so that beds handed on within a cycle, or to a
+        // later move, are free to claim
+        applyOccupancyChanges(occupancyChanges);
+        Set<Long> changedBeds = new TreeSet<>(vacatedBeds);
+        newAllocations.forEach(allocation -> changedBeds.add(allocation.getBedId()));
+        lockBeds(changedBeds);
+        releaseBeds(vacatedBeds);
+        claimPlannedBeds(newAllocations);
+        insertAllocations(newAllocations);
+        
+        publishBedChanges(changedBeds);
+        
+        return result;
+    }
+    
+    private void lockBeds(Collection<Long> bedIds) {
+        List<Long> ids = bedIds.stream().sorted().toList();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_SIZE, ids.size()));
+            jdbcTemplate.queryForList("SELECT id FROM beds WHERE id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) +
+                    ") ORDER BY id FOR UPDATE", Long.class, chunk.toArray());
+        }
+    }
+    
+    private void releaseBeds(List<Long> bedIds) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "UPDATE beds SET status = 'AVAILABLE', is_occupied = false, student_id = NULL, student_name = NULL, " +
+                        "updated_at = ? WHERE id = ?",
+                bedIds.stream().sorted().toList(), JDBC_BATCH_SIZE, (ps, bedId) -> {
+                    ps.setObject(1, now);
+                    ps.setLong(2, bedId);
+                });
+    }
 }
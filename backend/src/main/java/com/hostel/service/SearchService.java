@@ -3,21 +3,49 @@ package com.hostel.service;
 import com.hostel.dto.SearchCriteria;
 import com.hostel.model.*;
 import com.hostel.repository.*;
-import lombok.RequiredArgsConstructor;
+import com.hostel.search.FacetIndex;
+import com.hostel.search.FuzzySearch;
+import com.hostel.search.ScoredId;
+import com.hostel.search.SearchExporter;
+import com.hostel.search.SearchIndex;
+import com.hostel.search.SearchResultCache;
+import com.hostel.search.SearchSpecifications;
+import com.hostel.search.SuggestIndex;
+import com.hostel.search.Suggestion;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class SearchService {
     
     private final StudentRepository studentRepository;
@@ -26,27 +54,232 @@ public class SearchService {
     private final ComplaintRepository complaintRepository;
     private final AttendanceRepository attendanceRepository;
     private final GatePassRepository gatePassRepository;
+    private final SearchIndex searchIndex;
+    private final FuzzySearch fuzzySearch;
+    private final SearchExporter searchExporter;
+    private final SearchResultCache searchResultCache;
+    private final SuggestIndex suggestIndex;
+    private final FacetIndex facetIndex;
+    private final ExecutorService searchExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final long legTimeoutMs;
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int FUZZY_RESULT_LIMIT = 20;
+    private static final int MAX_SUGGESTIONS = 25;
+    
+    public SearchService(StudentRepository studentRepository,
+                         RoomRepository roomRepository,
+                         FeePaymentRepository feePaymentRepository,
+                         ComplaintRepository complaintRepository,
+                         AttendanceRepository attendanceRepository,
+                         GatePassRepository gatePassRepository,
+                         SearchIndex searchIndex,
+                         FuzzySearch fuzzySearch,
+                         SearchExporter searchExporter,
+                         SearchResultCache searchResultCache,
+                         SuggestIndex suggestIndex,
+                         FacetIndex facetIndex,
+                         @Qualifier("searchExecutor") ExecutorService searchExecutor,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${search.parallel.timeout-ms:2000}") long legTimeoutMs) {
+        this.studentRepository = studentRepository;
+        this.roomRepository = roomRepository;
+        this.feePaymentRepository = feePaymentRepository;
+        this.complaintRepository = complaintRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.gatePassRepository = gatePassRepository;
+        this.searchIndex = searchIndex;
+        this.fuzzySearch = fuzzySearch;
+        this.searchExporter = searchExporter;
+        this.searchResultCache = searchResultCache;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.searchExecutor = searchExecutor;
+        this.transactionManager = transactionManager;
+        this.legTimeoutMs = legTimeoutMs;
+    }
     
     public Map<String, Object> advancedSearch(SearchCriteria criteria) {
         Map<String, Object> results = new HashMap<>();
         
         // Search students
-        List<Student> students = searchStudents(criteria);
+        Page<Student> students = searchStudents(criteria);
+        results.put("students", students.getContent());
+        results.put("studentCount", students.getTotalElements());
+        
+        // Search rooms
+        Page<Room> rooms = searchRooms(criteria);
+        results.put("rooms", rooms.getContent());
+        results.put("roomCount", rooms.getTotalElements());
+        
+        // Search fees
+        Page<FeePayment> fees = searchFees(criteria);
+        results.put("fees", fees.getContent());
+        results.put("feeCount", fees.getTotalElements());
+        
+        // Search complaints
+        Page<Complaint> complaints = searchComplaints(criteria);
+        results.put("complaints", complaints.getContent());
+        results.put("complaintCount", complaints.getTotalElements());
+        
+        results.put("totalResults", students.getTotalElements() + rooms.getTotalElements()
+                + fees.getTotalElements() + complaints.getTotalElements());
+        
+        return results;
+    }
+    
+    public Map<String, Object> parallelAdvancedSearch(SearchCriteria criteria) {
+        // All four legs start together, so each one gets the full timeout from now
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(legTimeoutMs);
+        
+        CompletableFuture<Page<Student>> students = startLeg(() -> searchStudents(criteria), deadline);
+        CompletableFuture<Page<Room>> rooms = startLeg(() -> searchRooms(criteria), deadline);
+        CompletableFuture<Page<FeePayment>> fees = startLeg(() -> searchFees(criteria), deadline);
+        CompletableFuture<Page<Complaint>> complaints = startLeg(() -> searchComplaints(criteria), deadline);
+        
+        Map<String, Object> results = new HashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        long total = 0;
+        total += collectLeg(results, "students", "studentCount", students, deadline, timedOut);
+        total += collectLeg(results, "rooms", "roomCount", rooms, deadline, timedOut);
+        total += collectLeg(results, "fees", "feeCount", fees, deadline, timedOut);
+        total += collectLeg(results, "complaints", "complaintCount", complaints, deadline, timedOut);
+        
+        results.put("totalResults", total);
+        results.put("partial", !timedOut.isEmpty());
+        results.put("timedOut", timedOut);
+        
+        return results;
+    }
+    
+    private <T> CompletableFuture<T> startLeg(Supplier<T> search, long deadline) {
+        try {
+            return CompletableFuture.supplyAsync(() -> withDeadline(search, deadline), searchExecutor);
+        } catch (RejectedExecutionException e) {
+            // Pool and queue are full; the leg is reported as timed out rather than run here
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    // The leg runs in a read-only transaction timing out at the deadline, which is applied
+    // to each of its queries as jakarta.persistence.query.timeout, so an abandoned leg stops
+    private <T> T withDeadline(Supplier<T> search, long deadline) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            throw new TransactionTimedOutException("Search deadline passed before the leg started");
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMs + 999)));
+        return transaction.execute(status -> search.get());
+    }
+    
+    private long collectLeg(Map<String, Object> results, String key, String countKey,
+                            CompletableFuture<? extends Page<?>> leg, long deadline, List<String> timedOut) {
+        try {
+            Page<?> page = leg.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            results.put(key, page.getContent());
+            results.put(countKey, page.getTotalElements());
+            return page.getTotalElements();
+        } catch (TimeoutException e) {
+            // Keeps a queued leg from starting; a running one is stopped by its query timeout
+            leg.cancel(false);
+            return timedOut(results, key, countKey, timedOut);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException || e.getCause() instanceof QueryTimeoutException
+                    || e.getCause() instanceof TransactionTimedOutException) {
+                return timedOut(results, key, countKey, timedOut);
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Search failed for " + key, e.getCause());
+        }
+    }
+    
+    private static long timedOut(Map<String, Object> results, String key, String countKey, List<String> timedOut) {
+        results.put(key, Collections.emptyList());
+        results.put(countKey, 0L);
+        timedOut.add(key);
+        return 0;
+    }
+    
+    public Page<Student> searchStudents(SearchCriteria criteria) {
+        return searchResultCache.get(SearchResultCache.Region.STUDENT, criteria,
+                normalized -> studentRepository.findAll(SearchSpecifications.students(normalized), toPageable(normalized, Student.class)));
+    }
+    
+    public Page<Room> searchRooms(SearchCriteria criteria) {
+        return searchResultCache.get(SearchResultCache.Region.ROOM, criteria,
+                normalized -> roomRepository.findAll(SearchSpecifications.rooms(normalized), toPageable(normalized, Room.class)));
+    }
+    
+    public Page<FeePayment> searchFees(SearchCriteria criteria) {
+        return searchResultCache.get(SearchResultCache.Region.FEE, criteria,
+                normalized -> feePaymentRepository.findAll(SearchSpecifications.fees(normalized), toPageable(normalized, FeePayment.class)));
+    }
+    
+    public Page<Complaint> searchComplaints(SearchCriteria criteria) {
+        return searchResultCache.get(SearchResultCache.Region.COMPLAINT, criteria,
+                normalized -> complaintRepository.findAll(SearchSpecifications.complaints(normalized), toPageable(normalized, Complaint.class)));
+    }
+    
+    public long exportStudents(SearchCriteria criteria, SearchExporter.Format format, OutputStream out) throws IOException {
+        return searchExporter.export(Student.class, SearchSpecifications.students(criteria), toSort(criteria, Student.class), format, out);
+    }
+    
+    public long exportRooms(SearchCriteria criteria, SearchExporter.Format format, OutputStream out) throws IOException {
+        return searchExporter.export(Room.class, SearchSpecifications.rooms(criteria), toSort(criteria, Room.class), format, out);
+    }
+    
+    public long exportFees(SearchCriteria criteria, SearchExporter.Format format, OutputStream out) throws IOException {
+        return searchExporter.export(FeePayment.class, SearchSpecifications.fees(criteria), toSort(criteria, FeePayment.class), format, out);
+    }
+    
+    public long exportComplaints(SearchCriteria criteria, SearchExporter.Format format, OutputStream out) throws IOException {
+        return searchExporter.export(Complaint.class, SearchSpecifications.complaints(criteria), toSort(criteria, Complaint.class), format, out);
+    }
+    
+    private Pageable toPageable(SearchCriteria criteria, Class<?> entityType) {
+        int page = criteria.getPage() != null ? Math.max(criteria.getPage(), 0) : 0;
+        int size = criteria.getSize() != null ? Math.min(Math.max(criteria.getSize(), 1), MAX_PAGE_SIZE) : 10;
+        return PageRequest.of(page, size, toSort(criteria, entityType));
+    }
+    
+    // sortBy is shared across entity types, so it only applies where the entity has that property
+    private Sort toSort(SearchCriteria criteria, Class<?> entityType) {
+        if (criteria.getSortBy() != null && BeanUtils.getPropertyDescriptor(entityType, criteria.getSortBy()) != null) {
+            Sort.Direction direction = "DESC".equalsIgnoreCase(criteria.getSortOrder()) ? Sort.Direction.DESC : Sort.Direction.ASC;
+            return Sort.by(direction, criteria.getSortBy()).and(Sort.by("id"));
+        }
+        return Sort.by("id");
+    }
+    
+    public Map<String, Object> quickSearch(String searchTerm) {
+        Map<String, Object> results = new HashMap<>();
+        
+        // Resolve matches from the in-memory index, then load only the hits by primary key
+        List<Long> studentIds = toIdList(searchIndex.findStudentIds(searchTerm));
+        List<Student> students = studentIds.isEmpty() ? Collections.emptyList() : studentRepository.findAllById(studentIds);
         results.put("students", students);
         results.put("studentCount", students.size());
         
-        // Search rooms
-        List<Room> rooms = searchRooms(criteria);
+        List<Long> roomIds = toIdList(searchIndex.findRoomIds(searchTerm));
+        List<Room> rooms = roomIds.isEmpty() ? Collections.emptyList() : roomRepository.findAllById(roomIds);
         results.put("rooms", rooms);
         results.put("roomCount", rooms.size());
         
-        // Search fees
-        List<FeePayment> fees = searchFees(criteria);
+        // Fees have no searchable text; return the fees of the matched students
+        List<FeePayment> fees = studentIds.isEmpty() ? Collections.emptyList() : feePaymentRepository.findByStudentIdIn(studentIds);
         results.put("fees", fees);
         results.put("feeCount", fees.size());
         
-        // Search complaints
-        List<Complaint> complaints = searchComplaints(criteria);
+        List<Long> complaintIds = toIdList(searchIndex.findComplaintIds(searchTerm));
+        List<Complaint> complaints = complaintIds.isEmpty() ? Collections.emptyList() : complaintRepository.findAllById(complaintIds);
         results.put("complaints", complaints);
         results.put("complaintCount", complaints.size());
         
@@ -55,129 +288,88 @@ public class SearchService {
         return results;
     }
     
-    public List<Student> searchStudents(SearchCriteria criteria) {
-        List<Student> allStudents = studentRepository.findAll();
-        
-        return allStudents.stream()
-                .filter(student -> {
-                    if (criteria.getName() != null && !student.getName().toLowerCase().contains(criteria.getName().toLowerCase())) {
-                        return false;
-                    }
-                    if (criteria.getEmail() != null && !student.getEmail().toLowerCase().contains(criteria.getEmail().toLowerCase())) {
-                        return false;
-                    }
-                    if (criteria.getPhone() != null && student.getPhoneNumber() != null && !student.getPhoneNumber().contains(criteria.getPhone())) {
-                        return false;
-                    }
-                    if (criteria.getRoomNumber() != null && !criteria.getRoomNumber().equals(student.getRoomNumber())) {
-                        return false;
-                    }
-                    if (criteria.getStatus() != null && !criteria.getStatus().equals(student.getStatus())) {
-                        return false;
-                    }
-                    // Gender field not available in Student model
-                    // if (criteria.getGender() != null && !criteria.getGender().equals(student.getGender())) {
-                    //     return false;
-                    // }
-                    if (criteria.getCourse() != null && student.getCourse() != null && !student.getCourse().toLowerCase().contains(criteria.getCourse().toLowerCase())) {
-                        return false;
-                    }
-                    if (criteria.getYear() != null && student.getYearOfStudy() != null && !student.getYearOfStudy().equals(criteria.getYear())) {
-                        return false;
-                    }
-                    // Department field not available in Student model
-                    // if (criteria.getDepartment() != null && student.getDepartment() != null && !student.getDepartment().toLowerCase().contains(criteria.getDepartment().toLowerCase())) {
-                    //     return false;
-                    // }
-                    if (criteria.getSearchTerm() != null) {
-                        String searchTerm = criteria.getSearchTerm().toLowerCase();
-                        return student.getName().toLowerCase().contains(searchTerm) ||
-                               student.getEmail().toLowerCase().contains(searchTerm) ||
-                               (student.getPhoneNumber() != null && student.getPhoneNumber().contains(searchTerm));
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
+    public Map<String, Object> fuzzySearch(String searchTerm) {
+        Map<String, Object> results = new HashMap<>();
+        
+        List<ScoredId> studentMatches = fuzzySearch.searchStudents(searchTerm, FUZZY_RESULT_LIMIT);
+        List<Student> students = inRankOrder(studentMatches, studentRepository.findAllById(scoredIds(studentMatches)), Student::getId);
+        results.put("students", students);
+        results.put("studentScores", scores(studentMatches));
+        results.put("studentCount", students.size());
+        
+        List<Long> roomIds = toIdList(searchIndex.findRoomIds(searchTerm));
+        List<Room> rooms = roomIds.isEmpty() ? Collections.emptyList() : roomRepository.findAllById(roomIds);
+        results.put("rooms", rooms);
+        results.put("roomCount", rooms.size());
+        
+        List<Long> studentIds = scoredIds(studentMatches);
+        List<FeePayment> fees = studentIds.isEmpty() ? Collections.emptyList() : feePaymentRepository.findByStudentIdIn(studentIds);
+        results.put("fees", fees);
+        results.put("feeCount", fees.size());
+        
+        List<ScoredId> complaintMatches = fuzzySearch.searchComplaints(searchTerm, FUZZY_RESULT_LIMIT);
+        List<Complaint> complaints = inRankOrder(complaintMatches, complaintRepository.findAllById(scoredIds(complaintMatches)), Complaint::getId);
+        results.put("complaints", complaints);
+        results.put("complaintScores", scores(complaintMatches));
+        results.put("complaintCount", complaints.size());
+        
+        results.put("totalResults", students.size() + rooms.size() + fees.size() + complaints.size());
+        
+        return results;
     }
     
-    public List<Room> searchRooms(SearchCriteria criteria) {
-        List<Room> allRooms = roomRepository.findAll();
-        
-        return allRooms.stream()
-                .filter(room -> {
-                    if (criteria.getRoomNumber() != null && !room.getRoomNumber().contains(criteria.getRoomNumber())) {
-                        return false;
-                    }
-                    if (criteria.getRoomType() != null && !criteria.getRoomType().equals(room.getRoomType())) {
-                        return false;
-                    }
-                    if (criteria.getRoomStatus() != null && !criteria.getRoomStatus().equals(room.getStatus())) {
-                        return false;
-                    }
-                    if (criteria.getFloor() != null && !criteria.getFloor().equals(room.getFloor())) {
-                        return false;
-                    }
-                    if (criteria.getBlock() != null && !criteria.getBlock().equals(room.getBlock())) {
-                        return false;
-                    }
-                    return true;
-                })
+    private <T> List<T> inRankOrder(List<ScoredId> ranking, List<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> byId = entities.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ranking.stream()
+                .map(match -> byId.get(match.id()))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
-    public List<FeePayment> searchFees(SearchCriteria criteria) {
-        List<FeePayment> allFees = feePaymentRepository.findAll();
-        
-        return allFees.stream()
-                .filter(fee -> {
-                    if (criteria.getFeeStatus() != null && !criteria.getFeeStatus().equals(fee.getStatus())) {
-                        return false;
-                    }
-                    if (criteria.getMinAmount() != null && fee.getTotalAmount() < criteria.getMinAmount()) {
-                        return false;
-                    }
-                    if (criteria.getMaxAmount() != null && fee.getTotalAmount() > criteria.getMaxAmount()) {
-                        return false;
-                    }
-                    if (criteria.getFromDate() != null && fee.getPaymentDate() != null && fee.getPaymentDate().isBefore(criteria.getFromDate())) {
-                        return false;
-                    }
-                    if (criteria.getToDate() != null && fee.getPaymentDate() != null && fee.getPaymentDate().isAfter(criteria.getToDate())) {
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
+    private List<Long> scoredIds(List<ScoredId> matches) {
+        return matches.stream().map(ScoredId::id).collect(Collectors.toList());
     }
     
-    public List<Complaint> searchComplaints(SearchCriteria criteria) {
-        List<Complaint> allComplaints = complaintRepository.findAll();
-        
-        return allComplaints.stream()
-                .filter(complaint -> {
-                    if (criteria.getComplaintCategory() != null && !criteria.getComplaintCategory().equals(complaint.getCategory())) {
-                        return false;
-                    }
-                    if (criteria.getComplaintPriority() != null && !criteria.getComplaintPriority().equals(complaint.getPriority())) {
-                        return false;
-                    }
-                    if (criteria.getComplaintStatus() != null && !criteria.getComplaintStatus().equals(complaint.getStatus())) {
-                        return false;
-                    }
-                    if (criteria.getSearchTerm() != null) {
-                        String searchTerm = criteria.getSearchTerm().toLowerCase();
-                        return complaint.getTitle().toLowerCase().contains(searchTerm) ||
-                               complaint.getDescription().toLowerCase().contains(searchTerm);
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
+    private Map<Long, Double> scores(List<ScoredId> matches) {
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        matches.forEach(match -> scores.put(match.id(), match.score()));
+        return scores;
     }
     
-    public Map<String, Object> quickSearch(String searchTerm) {
-        SearchCriteria criteria = new SearchCriteria();
-        criteria.setSearchTerm(searchTerm);
+    public Map<String, List<Suggestion>> suggest(String prefix, String type, int limit) {
+        int k = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        Map<String, List<Suggestion>> suggestions = new LinkedHashMap<>();
+        if (!"room".equalsIgnoreCase(type)) {
+            suggestions.put("students", suggestIndex.suggestStudents(prefix, k));
+        }
+        if (!"student".equalsIgnoreCase(type)) {
+            suggestions.put("rooms", suggestIndex.suggestRooms(prefix, k));
+        }
+        return suggestions;
+    }
+    
+    public Map<String, Object> getFacets(String type, Map<String, List<String>> filters) {
+        Map<String, List<String>> accepted = new HashMap<>();
+        filters.forEach((field, values) -> accepted.put(field, values.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .toList()));
         
-        return advancedSearch(criteria);
+        if ("student".equalsIgnoreCase(type)) {
+            return facetIndex.countStudents(accepted);
+        }
+        if ("room".equalsIgnoreCase(type)) {
+            return facetIndex.countRooms(accepted);
+        }
+        throw new IllegalArgumentException("Unknown facet type: " + type);
+    }
+    
+    public Map<String, Object> getCacheStats() {
+        return searchResultCache.getStats();
+    }
+    
+    private List<Long> toIdList(long[] ids) {
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
     }
 }
@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.exception.DuplicateResourceException;
 import com.hostel.model.Student;
@@ -9,12 +10,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class StudentService {
     
     private final StudentRepository studentRepository;
+    private final NamePropagationService namePropagationService;
     
     @Transactional
     public Student createStudent(Student student) {
@@ -28,6 +31,10 @@ public class StudentService {
         return studentRepository.findAll();
     }
     
+    public KeysetPage<Student> getStudentsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, studentRepository::findByIdGreaterThanOrderByIdAsc, Student::getId);
+    }
+    
     public Student getStudentById(Long id) {
         return studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
@@ -44,6 +51,10 @@ public class StudentService {
             }
         }
         
+        if (!Objects.equals(student.getName(), studentDetails.getName())) {
+            namePropagationService.studentRenamed(student.getId());
+        }
+        
         student.setName(studentDetails.getName());
         student.setEmail(studentDetails.getEmail());
         student.setRoomNumber(studentDetails.getRoomNumber());
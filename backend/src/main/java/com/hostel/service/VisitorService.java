@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.KeysetPage;
 import com.hostel.exception.ResourceNotFoundException;
 import com.hostel.model.Student;
 import com.hostel.model.Visitor;
@@ -36,6 +37,10 @@ public class VisitorService {
         return visitorRepository.findAll();
     }
     
+    public KeysetPage<Visitor> getVisitorsPage(Long after, Integer limit) {
+        return KeysetPage.fetch(after, limit, visitorRepository::findByIdGreaterThanOrderByIdAsc, Visitor::getId);
+    }
+    
     public Visitor getVisitorById(Long id) {
         return visitorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Visitor not found with id: " + id));